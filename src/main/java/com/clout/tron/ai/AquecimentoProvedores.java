@@ -0,0 +1,48 @@
+package com.clout.tron.ai;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Abre as conexões com os provedores logo que a aplicação sobe, para a
+ * primeira jogada não pagar handshake TCP/TLS.
+ */
+@Component
+@RequiredArgsConstructor
+public class AquecimentoProvedores {
+
+    private final ProvedoresHttp provedoresHttp;
+
+    @Value("${tron.ai.http.aquecimento:true}")
+    private boolean ativo;
+
+    @Value("${spring.ai.openai.base-url}")
+    private String geminiBaseUrl;
+
+    @Value("${spring.ai.openai.api-key:}")
+    private String geminiApiKey;
+
+    @Value("${openai.api.base-url:https://api.openai.com/v1}")
+    private String openaiBaseUrl;
+
+    @Value("${openai.api.key:}")
+    private String openaiApiKey;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aquecer() {
+        if (!ativo) return;
+
+        CompletableFuture.runAsync(() ->
+                provedoresHttp.gemini().aquecer(geminiBaseUrl + "/models", geminiApiKey));
+
+        if (openaiApiKey != null && !openaiApiKey.isBlank()) {
+            CompletableFuture.runAsync(() ->
+                    provedoresHttp.openai().aquecer(openaiBaseUrl + "/models", openaiApiKey));
+        }
+    }
+}
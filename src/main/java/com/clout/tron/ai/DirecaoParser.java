@@ -0,0 +1,30 @@
+package com.clout.tron.ai;
+
+/**
+ * Reconhece a direção no texto parcial de uma resposta em streaming.
+ *
+ * Mesmo critério do normalizarDirecao do TronAiService (só letras, maiúsculas),
+ * aplicado a cada pedaço recebido. Como nenhuma direção é prefixo de outra, dá
+ * para parar assim que as letras acumuladas formam UP, DOWN, LEFT ou RIGHT.
+ */
+final class DirecaoParser {
+
+    private static final String[] DIRECOES = {"UP", "DOWN", "LEFT", "RIGHT"};
+
+    private DirecaoParser() {
+    }
+
+    /** Retorna a direção reconhecida ou null se ainda não dá para decidir. */
+    static String reconhecer(CharSequence texto) {
+        StringBuilder letras = new StringBuilder(8);
+        for (int i = 0; i < texto.length() && letras.length() <= 5; i++) {
+            char c = Character.toUpperCase(texto.charAt(i));
+            if (c >= 'A' && c <= 'Z') letras.append(c);
+        }
+        String parcial = letras.toString();
+        for (String dir : DIRECOES) {
+            if (parcial.equals(dir)) return dir;
+        }
+        return null;
+    }
+}
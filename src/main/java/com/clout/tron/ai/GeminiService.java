@@ -1,19 +1,70 @@
 package com.clout.tron.ai;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class GeminiService {
 
     private final ChatClient chatClient;
+    private final ProvedoresHttp provedoresHttp;
+    private final GravadorRespostasProvedor gravador;
+
+    @Value("${tron.ai.max-tokens:3}")
+    private int maxTokens;
 
+    /**
+     * Gera um movimento via streaming: lê os pedaços conforme chegam e fecha o
+     * stream assim que uma direção é reconhecida (latência ~ primeiro token).
+     * Se o stream terminar sem direção, retorna o texto bruto recebido.
+     */
     public String gerarMovimento(String prompt) {
-        return chatClient.prompt()
+        long inicio = System.nanoTime();
+        try {
+            String resposta = gerarMovimentoStream(prompt);
+            gravador.registrar("gemini", resposta, System.nanoTime() - inicio, false);
+            return resposta;
+        } catch (RuntimeException e) {
+            gravador.registrar("gemini", null, System.nanoTime() - inicio, true);
+            throw e;
+        }
+    }
+
+    private String gerarMovimentoStream(String prompt) {
+        OpenAiChatOptions opcoes = OpenAiChatOptions.builder()
+                .maxTokens(maxTokens)
+                .stop(List.of("\n", "."))
+                .build();
+
+        StringBuilder recebido = new StringBuilder();
+
+        String dir = chatClient.prompt()
                 .user(prompt)
-                .call()
-                .content();
+                .options(opcoes)
+                .stream()
+                .content()
+                // timeout de leitura entre pedaços (o de conexão fica no cliente HTTP)
+                .timeout(provedoresHttp.gemini().getReadTimeout())
+                .<String>handle((parte, sink) -> {
+                    recebido.append(parte);
+                    String reconhecida = DirecaoParser.reconhecer(recebido);
+                    if (reconhecida != null) sink.next(reconhecida);
+                })
+                .next() // cancela o stream no primeiro resultado
+                .block();
+
+        if (dir == null) {
+            log.debug("Stream do Gemini terminou sem direção reconhecível: {}", recebido);
+            return recebido.toString();
+        }
+        return dir;
     }
 }
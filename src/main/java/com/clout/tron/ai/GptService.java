@@ -2,12 +2,18 @@ package com.clout.tron.ai;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,22 +29,31 @@ public class GptService {
     @Value("${openai.api.model:gpt-4o-mini}")
     private String model;
 
+    @Value("${openai.api.base-url:https://api.openai.com/v1}")
+    private String baseUrl;
+
+    @Value("${tron.ai.max-tokens:3}")
+    private int maxTokens;
+
     private final ObjectMapper objectMapper;
+    private final ProvedoresHttp provedoresHttp;
+    private final GravadorRespostasProvedor gravador;
 
     private RestClient restClient;
 
-    private RestClient getClient() {
-        if (restClient == null) {
-            restClient = RestClient.builder()
-                    .baseUrl("https://api.openai.com/v1/chat/completions")
-                    .build();
-        }
-        return restClient;
+    // cliente único, sobre o pool HTTP compartilhado do provedor "openai"
+    @PostConstruct
+    void init() {
+        restClient = provedoresHttp.openai()
+                .restClientBuilder()
+                .baseUrl(baseUrl)
+                .build();
     }
 
     /**
      * Gera um movimento usando OpenAI GPT (backup do Gemini).
-     * Retorna a string bruta (UP/DOWN/LEFT/RIGHT ou qualquer coisa que o modelo mandar).
+     * Usa streaming (SSE) com max_tokens/stop curtos e fecha a conexão assim que
+     * uma direção aparece; se não aparecer, retorna o texto bruto recebido.
      */
     public String gerarMovimento(String prompt) {
         if (apiKey == null || apiKey.isBlank()) {
@@ -46,6 +61,7 @@ public class GptService {
             return null;
         }
 
+        long inicio = System.nanoTime();
         try {
             Map<String, Object> message = new HashMap<>();
             message.put("role", "user");
@@ -55,29 +71,65 @@ public class GptService {
             body.put("model", model);
             body.put("messages", List.of(message));
             body.put("temperature", 0.4);
+            body.put("max_tokens", maxTokens);
+            body.put("stop", List.of("\n", "."));
+            body.put("stream", true);
 
-            String response = getClient()
+            String resposta = restClient
                     .post()
+                    .uri("/chat/completions")
                     .header("Authorization", "Bearer " + apiKey)
                     .header("Content-Type", "application/json")
+                    .header("Accept", "text/event-stream")
                     .body(body)
-                    .retrieve()
-                    .body(String.class);
-
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode choices = root.get("choices");
-            if (choices == null || !choices.isArray() || choices.isEmpty()) {
-                log.warn("Resposta GPT sem choices: {}", response);
-                return null;
-            }
+                    .exchange((request, response) -> {
+                        if (response.getStatusCode().isError()) {
+                            log.warn("GPT respondeu status {}.", response.getStatusCode());
+                            return null;
+                        }
+                        // ao sair do exchange a resposta é fechada, encerrando o stream
+                        return lerStream(response.getBody());
+                    });
 
-            String content = choices.get(0).get("message").get("content").asText();
-            log.debug("Resposta GPT (raw): {}", content);
-            return content;
+            gravador.registrar("openai", resposta, System.nanoTime() - inicio, resposta == null);
+            return resposta;
 
         } catch (Exception e) {
             log.error("Erro ao chamar OpenAI GPT.", e);
+            gravador.registrar("openai", null, System.nanoTime() - inicio, true);
             return null;
         }
     }
+
+    /**
+     * Lê os eventos "data: {...}" do SSE acumulando choices[0].delta.content
+     * até reconhecer uma direção.
+     */
+    private String lerStream(InputStream corpo) throws IOException {
+        StringBuilder recebido = new StringBuilder();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(corpo, StandardCharsets.UTF_8));
+
+        String linha;
+        while ((linha = reader.readLine()) != null) {
+            if (!linha.startsWith("data:")) continue;
+            String dados = linha.substring(5).trim();
+            if (dados.equals("[DONE]")) break;
+
+            JsonNode choices = objectMapper.readTree(dados).get("choices");
+            if (choices == null || !choices.isArray() || choices.isEmpty()) continue;
+
+            JsonNode parte = choices.get(0).path("delta").path("content");
+            if (parte.isMissingNode() || parte.isNull()) continue;
+
+            recebido.append(parte.asText());
+            String dir = DirecaoParser.reconhecer(recebido);
+            if (dir != null) {
+                log.debug("Resposta GPT (stream): {}", dir);
+                return dir;
+            }
+        }
+
+        log.debug("Stream do GPT terminou sem direção reconhecível: {}", recebido);
+        return recebido.toString();
+    }
 }
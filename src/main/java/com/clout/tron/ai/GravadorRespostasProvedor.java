@@ -0,0 +1,76 @@
+package com.clout.tron.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Grava as respostas reais dos provedores (texto bruto + latência) em JSONL,
+ * para depois serem reproduzidas pelo ProvedorLocalServer.
+ * Desligado enquanto tron.ai.gravacao.arquivo estiver vazio.
+ *
+ * Formato de cada linha: {"provedor":"gemini","resposta":"LEFT","latenciaMs":231,"erro":false}
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GravadorRespostasProvedor {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${tron.ai.gravacao.arquivo:}")
+    private String arquivo;
+
+    private BufferedWriter writer;
+
+    @PostConstruct
+    void abrir() throws IOException {
+        if (arquivo == null || arquivo.isBlank()) return;
+        writer = Files.newBufferedWriter(Path.of(arquivo), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        log.info("Gravando respostas dos provedores em {}.", arquivo);
+    }
+
+    @PreDestroy
+    void fechar() throws IOException {
+        if (writer != null) writer.close();
+    }
+
+    public boolean ativo() {
+        return writer != null;
+    }
+
+    public void registrar(String provedor, String resposta, long latenciaNanos, boolean erro) {
+        if (writer == null) return;
+
+        Map<String, Object> linha = new LinkedHashMap<>();
+        linha.put("provedor", provedor);
+        linha.put("resposta", resposta);
+        linha.put("latenciaMs", latenciaNanos / 1_000_000);
+        linha.put("erro", erro);
+
+        try {
+            String json = objectMapper.writeValueAsString(linha);
+            synchronized (this) {
+                writer.write(json);
+                writer.newLine();
+                writer.flush();
+            }
+        } catch (IOException e) {
+            log.warn("Falha ao gravar resposta do provedor {}: {}", provedor, e.toString());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.clout.tron.ai;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Cliente HTTP de um provedor de IA: um único HttpClient do JDK por provedor
+ * (HTTP/2 com fallback para 1.1, conexões keep-alive reaproveitadas), com
+ * timeouts próprios e métricas. Serve tanto RestClient quanto WebClient.
+ */
+@Slf4j
+public class ProvedorHttp {
+
+    private final String nome;
+    private final Duration readTimeout;
+    private final HttpClient httpClient;
+    private final ProvedorHttpMetricas metricas = new ProvedorHttpMetricas();
+
+    public ProvedorHttp(String nome, Duration connectTimeout, Duration readTimeout) {
+        this.nome = nome;
+        this.readTimeout = readTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public ProvedorHttpMetricas getMetricas() {
+        return metricas;
+    }
+
+    // ========================= RESTCLIENT =========================
+
+    public RestClient.Builder restClientBuilder() {
+        return configurar(RestClient.builder());
+    }
+
+    public RestClient.Builder configurar(RestClient.Builder builder) {
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(readTimeout);
+        return builder
+                .requestFactory(factory)
+                .requestInterceptor(interceptorMetricas());
+    }
+
+    private ClientHttpRequestInterceptor interceptorMetricas() {
+        return (request, body, execution) -> {
+            long inicio = metricas.inicio();
+            boolean falhou = true;
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                falhou = response.getStatusCode().isError();
+                return response;
+            } finally {
+                metricas.fim(inicio, falhou);
+            }
+        };
+    }
+
+    // ========================= WEBCLIENT =========================
+
+    public WebClient.Builder configurar(WebClient.Builder builder) {
+        return builder
+                .clientConnector(new JdkClientHttpConnector(httpClient))
+                .filter(filtroMetricas());
+    }
+
+    private ExchangeFilterFunction filtroMetricas() {
+        return (request, next) -> {
+            long inicio = metricas.inicio();
+            return next.exchange(request)
+                    .doOnSuccess(response -> metricas.fim(inicio, response == null || response.statusCode().isError()))
+                    .doOnError(e -> metricas.fim(inicio, true))
+                    .doOnCancel(() -> metricas.fim(inicio, true));
+        };
+    }
+
+    // ========================= AQUECIMENTO =========================
+
+    /**
+     * Abre a conexão (DNS + TCP + TLS + negociação HTTP/2) antes da primeira
+     * jogada, com um GET barato. Qualquer resposta HTTP conta como aquecido.
+     */
+    public void aquecer(String url, String apiKey) {
+        long inicio = metricas.inicio();
+        boolean falhou = true;
+        try {
+            HttpRequest.Builder req = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(readTimeout)
+                    .GET();
+            if (apiKey != null && !apiKey.isBlank()) {
+                req.header("Authorization", "Bearer " + apiKey);
+            }
+            HttpResponse<Void> resp = httpClient.send(req.build(), HttpResponse.BodyHandlers.discarding());
+            falhou = false;
+            metricas.marcarAquecido();
+            log.info("Provedor {} aquecido ({} via {}).", nome, resp.statusCode(), resp.version());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Falha ao aquecer provedor {} em {}: {}", nome, url, e.toString());
+        } finally {
+            metricas.fim(inicio, falhou);
+        }
+    }
+}
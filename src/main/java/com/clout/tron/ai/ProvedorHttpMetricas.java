@@ -0,0 +1,57 @@
+package com.clout.tron.ai;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de uso do cliente HTTP de um provedor.
+ *
+ * O HttpClient do JDK não expõe o estado interno do pool, então medimos o que
+ * importa para capacidade: requisições, em andamento (conexões/streams em uso),
+ * falhas e latência até os cabeçalhos da resposta.
+ */
+public class ProvedorHttpMetricas {
+
+    private final LongAdder requisicoes = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final AtomicInteger emAndamento = new AtomicInteger();
+    private final AtomicInteger picoEmAndamento = new AtomicInteger();
+    private final LongAdder latenciaTotalNanos = new LongAdder();
+    private final AtomicLong latenciaMaxNanos = new AtomicLong();
+    private volatile boolean aquecido;
+
+    public long inicio() {
+        int atual = emAndamento.incrementAndGet();
+        picoEmAndamento.accumulateAndGet(atual, Math::max);
+        return System.nanoTime();
+    }
+
+    public void fim(long inicio, boolean falhou) {
+        long duracao = System.nanoTime() - inicio;
+        emAndamento.decrementAndGet();
+        requisicoes.increment();
+        if (falhou) falhas.increment();
+        latenciaTotalNanos.add(duracao);
+        latenciaMaxNanos.accumulateAndGet(duracao, Math::max);
+    }
+
+    void marcarAquecido() {
+        this.aquecido = true;
+    }
+
+    public Map<String, Object> snapshot() {
+        long total = requisicoes.sum();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("requisicoes", total);
+        m.put("falhas", falhas.sum());
+        m.put("emAndamento", emAndamento.get());
+        m.put("picoEmAndamento", picoEmAndamento.get());
+        m.put("latenciaMediaMs", total == 0 ? 0.0 : latenciaTotalNanos.sum() / 1e6 / total);
+        m.put("latenciaMaxMs", latenciaMaxNanos.get() / 1e6);
+        m.put("aquecido", aquecido);
+        return m;
+    }
+}
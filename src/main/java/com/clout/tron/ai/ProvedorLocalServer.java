@@ -0,0 +1,267 @@
+package com.clout.tron.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Provedor local que imita a API OpenAI-compatible (/v1/chat/completions e
+ * /v1/models), com e sem streaming. Sobe só no profile "provedor-local", que
+ * também aponta Gemini e GPT para ele: dá para testar pool, timeouts,
+ * aquecimento, streaming e carga sem internet e sem gastar cota.
+ *
+ * - respostas: direções aleatórias ou reprodução (em rodízio) de um arquivo
+ *   gravado pelo GravadorRespostasProvedor;
+ * - latência: fixa, uniforme, lognormal ou a latência gravada de cada resposta;
+ * - erros injetados: 500, 429, resposta lenta (para estourar timeout) e texto
+ *   sem direção, cada um com sua taxa.
+ */
+@Component
+@Profile("provedor-local")
+@RequiredArgsConstructor
+@Slf4j
+public class ProvedorLocalServer {
+
+    private static final String[] DIRECOES = {"UP", "DOWN", "LEFT", "RIGHT"};
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${tron.ai.provedor-local.porta:8099}")
+    private int porta;
+
+    // fixa | uniforme | lognormal | gravada
+    @Value("${tron.ai.provedor-local.latencia.distribuicao:fixa}")
+    private String distribuicao;
+
+    // valor da fixa e mediana da lognormal
+    @Value("${tron.ai.provedor-local.latencia.ms:150}")
+    private long latenciaMs;
+
+    @Value("${tron.ai.provedor-local.latencia.min-ms:50}")
+    private long latenciaMinMs;
+
+    @Value("${tron.ai.provedor-local.latencia.max-ms:400}")
+    private long latenciaMaxMs;
+
+    @Value("${tron.ai.provedor-local.latencia.sigma:0.5}")
+    private double sigma;
+
+    @Value("${tron.ai.provedor-local.gravacao:}")
+    private String arquivoGravacao;
+
+    @Value("${tron.ai.provedor-local.erros.taxa-500:0}")
+    private double taxaErro500;
+
+    @Value("${tron.ai.provedor-local.erros.taxa-429:0}")
+    private double taxaErro429;
+
+    @Value("${tron.ai.provedor-local.erros.taxa-lento:0}")
+    private double taxaLento;
+
+    @Value("${tron.ai.provedor-local.erros.lento-ms:10000}")
+    private long lentoMs;
+
+    @Value("${tron.ai.provedor-local.erros.taxa-lixo:0}")
+    private double taxaLixo;
+
+    private record RespostaGravada(String provedor, String resposta, long latenciaMs, boolean erro) {
+    }
+
+    private final List<RespostaGravada> gravadasGemini = new ArrayList<>();
+    private final List<RespostaGravada> gravadasOpenai = new ArrayList<>();
+    private final AtomicLong proximaGravada = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    @PostConstruct
+    void iniciar() throws IOException {
+        carregarGravacao();
+
+        // sem TCP_NODELAY o HttpServer do JDK soma ~40 ms (Nagle + ACK atrasado) a cada resposta
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", porta), 0);
+        server.createContext("/v1/chat/completions", this::chatCompletions);
+        server.createContext("/v1/models", this::models);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.start();
+        log.info("Provedor local de IA ouvindo em http://127.0.0.1:{}/v1 (latência {}, {} respostas gravadas).",
+                porta, distribuicao, gravadasGemini.size() + gravadasOpenai.size());
+    }
+
+    private void carregarGravacao() throws IOException {
+        if (arquivoGravacao == null || arquivoGravacao.isBlank()) return;
+
+        for (String linha : Files.readAllLines(Path.of(arquivoGravacao), StandardCharsets.UTF_8)) {
+            if (linha.isBlank()) continue;
+            JsonNode n = objectMapper.readTree(linha);
+            RespostaGravada r = new RespostaGravada(
+                    n.path("provedor").asText("gemini"),
+                    n.path("resposta").isNull() ? null : n.path("resposta").asText(),
+                    n.path("latenciaMs").asLong(latenciaMs),
+                    n.path("erro").asBoolean(false));
+            ("openai".equals(r.provedor()) ? gravadasOpenai : gravadasGemini).add(r);
+        }
+    }
+
+    @PreDestroy
+    void parar() {
+        if (server != null) server.stop(0);
+        if (executor != null) executor.shutdownNow();
+    }
+
+    // ========================= HANDLERS =========================
+
+    private void models(HttpExchange exchange) throws IOException {
+        responderJson(exchange, 200, Map.of("object", "list", "data", List.of()));
+    }
+
+    private void chatCompletions(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            JsonNode req = objectMapper.readTree(in);
+            String model = req.path("model").asText("local");
+            boolean stream = req.path("stream").asBoolean(false);
+
+            RespostaGravada resposta = escolherResposta(model);
+            dormir(latencia(resposta));
+
+            // erros injetados (na ordem: 500, 429, lento, lixo)
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            if (resposta.erro() || rnd.nextDouble() < taxaErro500) {
+                responderJson(exchange, 500, Map.of("error", Map.of("message", "erro injetado", "type", "server_error")));
+                return;
+            }
+            if (rnd.nextDouble() < taxaErro429) {
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                responderJson(exchange, 429, Map.of("error", Map.of("message", "rate limit injetado", "type", "rate_limit")));
+                return;
+            }
+            if (rnd.nextDouble() < taxaLento) {
+                dormir(lentoMs);
+            }
+            String texto = rnd.nextDouble() < taxaLixo ? "Acho que a melhor jogada" : resposta.resposta();
+            if (texto == null) texto = "";
+
+            if (stream) {
+                responderStream(exchange, model, texto);
+            } else {
+                responderJson(exchange, 200, Map.of(
+                        "id", "local",
+                        "object", "chat.completion",
+                        "created", System.currentTimeMillis() / 1000,
+                        "model", model,
+                        "choices", List.of(Map.of(
+                                "index", 0,
+                                "message", Map.of("role", "assistant", "content", texto),
+                                "finish_reason", "stop")),
+                        "usage", Map.of("prompt_tokens", 0, "completion_tokens", 1, "total_tokens", 1)));
+            }
+        } catch (IOException e) {
+            // cliente fechou a conexão no meio (ex.: já reconheceu a direção)
+            log.trace("Conexão encerrada pelo cliente: {}", e.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /** Resposta gravada do provedor do modelo pedido (em rodízio) ou direção aleatória. */
+    private RespostaGravada escolherResposta(String model) {
+        List<RespostaGravada> gravadas = model.startsWith("gemini") ? gravadasGemini : gravadasOpenai;
+        if (gravadas.isEmpty()) gravadas = gravadasGemini.isEmpty() ? gravadasOpenai : gravadasGemini;
+
+        if (!gravadas.isEmpty()) {
+            int i = (int) (proximaGravada.getAndIncrement() % gravadas.size());
+            return gravadas.get(i);
+        }
+        String dir = DIRECOES[ThreadLocalRandom.current().nextInt(DIRECOES.length)];
+        return new RespostaGravada("local", dir, latenciaMs, false);
+    }
+
+    private long latencia(RespostaGravada resposta) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        return switch (distribuicao) {
+            case "uniforme" -> rnd.nextLong(latenciaMinMs, Math.max(latenciaMinMs, latenciaMaxMs) + 1);
+            case "lognormal" -> Math.round(latenciaMs * Math.exp(sigma * rnd.nextGaussian()));
+            case "gravada" -> resposta.latenciaMs();
+            default -> latenciaMs;
+        };
+    }
+
+    /** Manda o texto em dois pedaços, como tokens separados, e depois [DONE]. */
+    private void responderStream(HttpExchange exchange, String model, String texto) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+
+        int meio = texto.length() / 2;
+        enviarEvento(out, chunk(model, Map.of("role", "assistant", "content", ""), null));
+        enviarEvento(out, chunk(model, Map.of("content", texto.substring(0, meio)), null));
+        dormir(20);
+        enviarEvento(out, chunk(model, Map.of("content", texto.substring(meio)), null));
+        enviarEvento(out, chunk(model, Map.of(), "stop"));
+        out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private String chunk(String model, Map<String, Object> delta, String finishReason) throws IOException {
+        Map<String, Object> choice = new java.util.HashMap<>();
+        choice.put("index", 0);
+        choice.put("delta", delta);
+        choice.put("finish_reason", finishReason);
+        return objectMapper.writeValueAsString(Map.of(
+                "id", "local",
+                "object", "chat.completion.chunk",
+                "created", System.currentTimeMillis() / 1000,
+                "model", model,
+                "choices", List.of(choice)));
+    }
+
+    private void enviarEvento(OutputStream out, String json) throws IOException {
+        out.write(("data: " + json + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private void responderJson(HttpExchange exchange, int status, Object corpo) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(corpo);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void dormir(long ms) {
+        if (ms <= 0) return;
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
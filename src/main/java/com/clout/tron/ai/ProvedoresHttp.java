@@ -0,0 +1,33 @@
+package com.clout.tron.ai;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Camada HTTP compartilhada pelos provedores de IA (um ProvedorHttp por provedor).
+ */
+public class ProvedoresHttp {
+
+    private final ProvedorHttp gemini;
+    private final ProvedorHttp openai;
+
+    public ProvedoresHttp(ProvedorHttp gemini, ProvedorHttp openai) {
+        this.gemini = gemini;
+        this.openai = openai;
+    }
+
+    public ProvedorHttp gemini() {
+        return gemini;
+    }
+
+    public ProvedorHttp openai() {
+        return openai;
+    }
+
+    public Map<String, Object> metricas() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put(gemini.getNome(), gemini.getMetricas().snapshot());
+        m.put(openai.getNome(), openai.getMetricas().snapshot());
+        return m;
+    }
+}
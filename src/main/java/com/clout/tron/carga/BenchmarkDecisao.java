@@ -0,0 +1,262 @@
+package com.clout.tron.carga;
+
+import com.clout.tron.engine.PontuacaoLocal;
+import com.clout.tron.engine.TabuleiroTrabalho;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark da decisão local (caminho do fallback/triagem, sem banco nem LLM)
+ * variando o lado do tabuleiro e o número de motos.
+ *
+ * Para cada combinação gera partidas com motos andando ao acaso (evitando bater)
+ * até o tabuleiro atingir a ocupação pedida, guarda estados intermediários e mede
+ * o tempo de decidir cada um: carregar as ocupadas no {@link TabuleiroTrabalho},
+ * checar se o bot está isolado e pontuar as 4 direções. A coluna "matriz" mede o
+ * mesmo score no formato anterior (matriz n² nova e flood fill sem limite por
+ * direção) para comparação.
+ *
+ * Uso (só depende do JDK e das classes do projeto):
+ *   java -cp target/classes com.clout.tron.carga.BenchmarkDecisao \
+ *        --tamanhos 30,60,100,200,400 --motos 2,4,6 --estados 300 --ocupacao 0.3
+ */
+public final class BenchmarkDecisao {
+
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0};
+
+    /**
+     * Estado congelado: ocupadas (índices y * n + x) e cabeças (a do bot primeiro).
+     */
+    private record Estado(int n, int[] ocupadas, int[] cabecas, int dirBot) {}
+
+    public static void main(String[] args) {
+        int[] tamanhos = {30, 60, 100, 200, 400};
+        int[] motos = {2, 4, 6};
+        int estados = 300;
+        double ocupacao = 0.3;
+        long seed = 42;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--tamanhos" -> tamanhos = inteiros(args[i + 1]);
+                case "--motos" -> motos = inteiros(args[i + 1]);
+                case "--estados" -> estados = Integer.parseInt(args[i + 1]);
+                case "--ocupacao" -> ocupacao = Double.parseDouble(args[i + 1]);
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                default -> throw new IllegalArgumentException("Parâmetro desconhecido: " + args[i]);
+            }
+        }
+
+        PontuacaoLocal pontuacao = new PontuacaoLocal(1024, 20);
+        System.out.printf("%6s %5s %9s | %10s %10s | %10s %10s%n",
+                "lado", "motos", "ocupadas", "p50 µs", "p99 µs", "matriz p50", "matriz p99");
+
+        for (int n : tamanhos) {
+            for (int m : motos) {
+                List<Estado> amostra = gerarEstados(n, m, estados, ocupacao, new Random(seed));
+                if (amostra.isEmpty()) continue;
+
+                // aquecimento do JIT nos dois caminhos
+                for (int r = 0; r < 5; r++) {
+                    for (Estado e : amostra) {
+                        decidir(e, pontuacao);
+                        decidirMatriz(e);
+                    }
+                }
+
+                long[] novo = medir(amostra, e -> decidir(e, pontuacao));
+                long[] matriz = medir(amostra, BenchmarkDecisao::decidirMatriz);
+                long mediaOcupadas = amostra.stream().mapToLong(e -> e.ocupadas().length).sum() / amostra.size();
+
+                System.out.printf("%6d %5d %9d | %10.1f %10.1f | %10.1f %10.1f%n",
+                        n, m, mediaOcupadas,
+                        percentil(novo, 0.50) / 1000.0, percentil(novo, 0.99) / 1000.0,
+                        percentil(matriz, 0.50) / 1000.0, percentil(matriz, 0.99) / 1000.0);
+            }
+        }
+    }
+
+    // =====================================================================
+    // CAMINHOS MEDIDOS
+    // =====================================================================
+
+    private static double sumidouro;
+
+    private static void decidir(Estado e, PontuacaoLocal pontuacao) {
+        int n = e.n();
+        TabuleiroTrabalho t = TabuleiroTrabalho.daThread();
+        t.iniciar(n, e);
+        for (int c : e.ocupadas()) t.ocupar(c % n, c / n);
+
+        int bot = e.cabecas()[0];
+        int[] oponentes = Arrays.copyOfRange(e.cabecas(), 1, e.cabecas().length);
+        int bx = bot % n, by = bot / n;
+
+        // checagem de endgame do TronAiService (o solver em si não entra na medição)
+        if (!pontuacao.disputaEspaco(t, bx, by, oponentes, oponentes.length)) sumidouro++;
+
+        double[] saida = new double[4];
+        pontuacao.pontuar(t, bx, by, e.dirBot(), oponentes, oponentes.length, saida);
+        for (double s : saida) if (!Double.isNaN(s)) sumidouro += s;
+    }
+
+    /**
+     * Formato anterior: matriz nova por chamada e, por direção, flood fill completo
+     * e a cópia da matriz que a simulação fazia.
+     */
+    private static void decidirMatriz(Estado e) {
+        int n = e.n();
+        boolean[][] ocupado = new boolean[n][n];
+        for (int c : e.ocupadas()) ocupado[c / n][c % n] = true;
+
+        int bot = e.cabecas()[0];
+        int bx = bot % n, by = bot / n;
+        for (int d = 0; d < 4; d++) {
+            if ((d ^ 1) == e.dirBot()) continue;
+            int nx = bx + DX[d], ny = by + DY[d];
+            if (nx < 0 || ny < 0 || nx >= n || ny >= n || ocupado[ny][nx]) continue;
+
+            boolean[][] copia = new boolean[n][n];
+            for (int y = 0; y < n; y++) System.arraycopy(ocupado[y], 0, copia[y], 0, n);
+            sumidouro += areaMatriz(nx, ny, ocupado) + copia.length;
+        }
+    }
+
+    private static int areaMatriz(int sx, int sy, boolean[][] ocupado) {
+        int n = ocupado.length;
+        boolean[][] visitado = new boolean[n][n];
+        ArrayDeque<int[]> fila = new ArrayDeque<>();
+        fila.add(new int[]{sx, sy});
+        visitado[sy][sx] = true;
+        int cont = 0;
+        while (!fila.isEmpty()) {
+            int[] a = fila.poll();
+            cont++;
+            for (int d = 0; d < 4; d++) {
+                int nx = a[0] + DX[d], ny = a[1] + DY[d];
+                if (nx < 0 || ny < 0 || nx >= n || ny >= n || visitado[ny][nx] || ocupado[ny][nx]) continue;
+                visitado[ny][nx] = true;
+                fila.add(new int[]{nx, ny});
+            }
+        }
+        return cont;
+    }
+
+    // =====================================================================
+    // GERAÇÃO DE ESTADOS
+    // =====================================================================
+
+    /**
+     * Motos espalhadas ao acaso, cada uma seguindo reto com chance de virar e evitando
+     * colisão imediata. Estados são amostrados a cada n/4 rodadas enquanto o bot vive,
+     * até a ocupação alvo (em tabuleiros grandes as motos costumam morrer antes dela).
+     */
+    private static List<Estado> gerarEstados(int n, int motos, int quantidade, double ocupacao, Random rnd) {
+        List<Estado> out = new ArrayList<>();
+        int alvo = (int) (n * (long) n * ocupacao);
+        int tentativas = 0;
+
+        while (out.size() < quantidade && tentativas++ < quantidade * 10) {
+            boolean[] ocupado = new boolean[n * n];
+            int[] ocupadas = new int[n * n];
+            int qtd = 0;
+
+            int[] cabeca = new int[motos];
+            int[] dir = new int[motos];
+            boolean[] viva = new boolean[motos];
+            for (int m = 0; m < motos; m++) {
+                int c;
+                do {
+                    c = rnd.nextInt(n * n);
+                } while (ocupado[c]);
+                ocupado[c] = true;
+                ocupadas[qtd++] = c;
+                cabeca[m] = c;
+                dir[m] = rnd.nextInt(4);
+                viva[m] = true;
+            }
+
+            // cada partida contribui com alguns estados em pontos diferentes do preenchimento
+            int intervalo = Math.max(1, n / 4);
+            int rodada = 0;
+            while (qtd < alvo && viva[0]) {
+                rodada++;
+                for (int m = 0; m < motos; m++) {
+                    if (!viva[m]) continue;
+                    int escolhida = escolherDirecao(n, ocupado, cabeca[m], dir[m], rnd);
+                    if (escolhida < 0) {
+                        viva[m] = false;
+                        continue;
+                    }
+                    int x = cabeca[m] % n + DX[escolhida], y = cabeca[m] / n + DY[escolhida];
+                    int c = y * n + x;
+                    ocupado[c] = true;
+                    ocupadas[qtd++] = c;
+                    cabeca[m] = c;
+                    dir[m] = escolhida;
+                }
+                if (rodada % intervalo == 0 && viva[0]) {
+                    out.add(congelar(n, ocupadas, qtd, cabeca, viva, dir[0]));
+                    if (out.size() >= quantidade) break;
+                }
+            }
+        }
+        return out;
+    }
+
+    private static int escolherDirecao(int n, boolean[] ocupado, int cabeca, int dir, Random rnd) {
+        int x = cabeca % n, y = cabeca / n;
+        int a = virar(dir, rnd.nextInt(2));
+        int b = virar(dir, 0) == a ? virar(dir, 1) : virar(dir, 0);
+        // costuma seguir reto; às vezes vira primeiro
+        int[] ordem = rnd.nextInt(10) < 8 ? new int[]{dir, a, b} : new int[]{a, dir, b};
+        for (int d : ordem) {
+            int nx = x + DX[d], ny = y + DY[d];
+            if (nx >= 0 && ny >= 0 && nx < n && ny < n && !ocupado[ny * n + nx]) return d;
+        }
+        return -1;
+    }
+
+    // as duas curvas possíveis a partir de dir (sem ré)
+    private static int virar(int dir, int lado) {
+        return dir < 2 ? 2 + lado : lado;
+    }
+
+    private static Estado congelar(int n, int[] ocupadas, int qtd, int[] cabeca, boolean[] viva, int dirBot) {
+        int vivas = 0;
+        for (boolean v : viva) if (v) vivas++;
+        int[] cabecas = new int[vivas];
+        int i = 0;
+        for (int m = 0; m < cabeca.length; m++) if (viva[m]) cabecas[i++] = cabeca[m];
+        return new Estado(n, Arrays.copyOf(ocupadas, qtd), cabecas, dirBot);
+    }
+
+    // =====================================================================
+    // MEDIÇÃO
+    // =====================================================================
+
+    private static long[] medir(List<Estado> amostra, java.util.function.Consumer<Estado> decisao) {
+        long[] tempos = new long[amostra.size()];
+        for (int i = 0; i < tempos.length; i++) {
+            long inicio = System.nanoTime();
+            decisao.accept(amostra.get(i));
+            tempos[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(tempos);
+        return tempos;
+    }
+
+    private static long percentil(long[] ordenados, double p) {
+        int idx = (int) Math.ceil(p * ordenados.length) - 1;
+        return ordenados[Math.max(0, Math.min(ordenados.length - 1, idx))];
+    }
+
+    private static int[] inteiros(String csv) {
+        return Arrays.stream(csv.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+}
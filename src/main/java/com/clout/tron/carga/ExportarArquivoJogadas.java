@@ -0,0 +1,199 @@
+package com.clout.tron.carga;
+
+import com.clout.tron.service.SegmentoJogadas;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Lê os segmentos do arquivo frio de jogadas (gerados pela retenção) e exporta as linhas.
+ *
+ * Formatos:
+ * - tsv: "acao \t resultado \t estado_json", só jogadas com WIN/LOSE — a mesma entrada
+ *   do TreinadorRedePolitica, para treinar também com o histórico arquivado;
+ * - jsonl: uma jogada completa por linha (id, partidaId, turno, acao, resultado, tier,
+ *   estado), na ordem original, para reproduzir partidas.
+ * Jogadas repetidas (lote refeito depois de uma queda) saem uma vez só. Um id só pode se
+ * repetir entre segmentos cujos intervalos do nome (jogadas-&lt;primeiro&gt;-&lt;último&gt;) se
+ * sobrepõem, então só os ids desses segmentos ficam em memória, e só até o último
+ * segmento que ainda os alcança.
+ *
+ * Uso (só depende do JDK e das classes do projeto):
+ *   java -cp target/classes com.clout.tron.carga.ExportarArquivoJogadas \
+ *        --diretorio arquivo-jogadas --formato jsonl [--partida 123] [--saida jogadas.jsonl]
+ */
+public final class ExportarArquivoJogadas {
+
+    private static final Pattern NOME_SEGMENTO =
+            Pattern.compile("jogadas-(\\d+)-(\\d+)" + Pattern.quote(SegmentoJogadas.EXTENSAO));
+
+    // segmento do diretório com o intervalo de ids tirado do nome
+    private record Segmento(Path arquivo, long primeiro, long ultimo) {
+    }
+
+    // ids exportados de um segmento que se sobrepõe a algum seguinte (ordenados ao fim da leitura)
+    private static final class IdsExportados {
+        final long ultimo;
+        long[] ids = new long[256];
+        int qtd;
+
+        IdsExportados(long ultimo) {
+            this.ultimo = ultimo;
+        }
+
+        boolean contem(long id) {
+            return Arrays.binarySearch(ids, 0, qtd, id) >= 0;
+        }
+
+        void adicionar(long id) {
+            if (qtd == ids.length) ids = Arrays.copyOf(ids, qtd * 2);
+            ids[qtd++] = id;
+        }
+
+        void ordenar() {
+            Arrays.sort(ids, 0, qtd);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path diretorio = Path.of("arquivo-jogadas");
+        String formato = "tsv";
+        Long partida = null;
+        Path saida = null;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--diretorio" -> diretorio = Path.of(args[i + 1]);
+                case "--formato" -> formato = args[i + 1];
+                case "--partida" -> partida = Long.parseLong(args[i + 1]);
+                case "--saida" -> saida = Path.of(args[i + 1]);
+                default -> throw new IllegalArgumentException("Parâmetro desconhecido: " + args[i]);
+            }
+        }
+        if (!formato.equals("tsv") && !formato.equals("jsonl")) {
+            throw new IllegalArgumentException("Formato deve ser tsv ou jsonl: " + formato);
+        }
+
+        List<Segmento> segmentos;
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            segmentos = arquivos
+                    .filter(p -> p.getFileName().toString().endsWith(SegmentoJogadas.EXTENSAO))
+                    .map(ExportarArquivoJogadas::segmento)
+                    .sorted(Comparator.comparingLong(Segmento::primeiro).thenComparingLong(Segmento::ultimo))
+                    .toList();
+        }
+
+        Writer out = new BufferedWriter(saida == null
+                ? new OutputStreamWriter(System.out, StandardCharsets.UTF_8)
+                : Files.newBufferedWriter(saida, StandardCharsets.UTF_8));
+        List<IdsExportados> abertos = new ArrayList<>();
+        long[] exportadas = {0};
+        boolean jsonl = formato.equals("jsonl");
+        Long filtro = partida;
+
+        try {
+            for (int s = 0; s < segmentos.size(); s++) {
+                Segmento segmento = segmentos.get(s);
+                // em ordem de primeiro id: quem termina antes deste começar não se repete mais
+                abertos.removeIf(a -> a.ultimo < segmento.primeiro());
+                List<IdsExportados> anteriores = List.copyOf(abertos);
+                IdsExportados atual = null;
+                if (s + 1 < segmentos.size() && segmentos.get(s + 1).primeiro() <= segmento.ultimo()) {
+                    atual = new IdsExportados(segmento.ultimo());
+                    abertos.add(atual);
+                }
+                IdsExportados destino = atual;
+
+                try (InputStream in = Files.newInputStream(segmento.arquivo())) {
+                    SegmentoJogadas.ler(in, r -> {
+                        if (filtro != null && r.partidaId() != filtro) return;
+                        for (IdsExportados a : anteriores) {
+                            if (a.contem(r.id())) return;
+                        }
+                        if (destino != null) destino.adicionar(r.id());
+                        try {
+                            if (jsonl) {
+                                escreverJson(out, r);
+                            } else if (!escreverTsv(out, r)) {
+                                return;
+                            }
+                            exportadas[0]++;
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+                if (destino != null) destino.ordenar();
+            }
+        } finally {
+            out.flush();
+            if (saida != null) out.close();
+        }
+        System.err.printf("%d jogadas exportadas de %d segmentos%n", exportadas[0], segmentos.size());
+    }
+
+    // nome fora do padrão: intervalo aberto, comparado com todos os outros segmentos
+    private static Segmento segmento(Path arquivo) {
+        Matcher m = NOME_SEGMENTO.matcher(arquivo.getFileName().toString());
+        if (!m.matches()) return new Segmento(arquivo, 0, Long.MAX_VALUE);
+        return new Segmento(arquivo, Long.parseLong(m.group(1)), Long.parseLong(m.group(2)));
+    }
+
+    private static boolean escreverTsv(Writer out, SegmentoJogadas.Registro r) throws IOException {
+        boolean rotulada = "WIN".equalsIgnoreCase(r.resultado()) || "LOSE".equalsIgnoreCase(r.resultado());
+        if (!rotulada || r.acao() == null || r.estadoJson() == null) return false;
+        out.write(r.acao());
+        out.write('\t');
+        out.write(r.resultado());
+        out.write('\t');
+        out.write(r.estadoJson());
+        out.write('\n');
+        return true;
+    }
+
+    private static void escreverJson(Writer out, SegmentoJogadas.Registro r) throws IOException {
+        out.write("{\"id\":" + r.id());
+        out.write(",\"partidaId\":" + r.partidaId());
+        out.write(",\"turno\":" + r.turno());
+        out.write(",\"acao\":" + texto(r.acao()));
+        out.write(",\"resultado\":" + texto(r.resultado()));
+        out.write(",\"tier\":" + texto(r.tier()));
+        // estado_json já é JSON: entra como objeto, sem escapar
+        out.write(",\"estado\":" + (r.estadoJson() == null ? "null" : r.estadoJson()));
+        out.write("}\n");
+    }
+
+    private static String texto(String valor) {
+        if (valor == null) return "null";
+        StringBuilder sb = new StringBuilder(valor.length() + 2).append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,354 @@
+package com.clout.tron.carga;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Teste de carga ponta a ponta do /api/ia/movimento.
+ *
+ * Simula N partidas simultâneas reproduzindo o gameTick() do tron.js (mesmo
+ * tabuleiro, posições iniciais, ordem jogador → pedido à IA → bot e o mesmo
+ * formato de estado), com um jogador que evita bater e costuma seguir reto.
+ * Ao terminar uma partida, registra o fim e começa outra.
+ *
+ * Mede a latência de cada pedido e agrupa pelo header X-Tron-Tier (qual camada
+ * do motor respondeu). Imprime vazão e p50/p99/p999 por camada.
+ *
+ * Para não gastar cota, suba a aplicação com o profile "provedor-local".
+ * Uso (só depende do JDK):
+ *   java -cp target/classes com.clout.tron.carga.TesteCarga \
+ *        --url http://localhost:8087 --partidas 50 --duracao-s 60 --tick-ms 70
+ * Com --tick-ms 0 cada partida espera a resposta antes do próximo tick
+ * (mede a capacidade máxima em vez do ritmo real do jogo).
+ */
+public final class TesteCarga {
+
+    private static final int GRID_SIZE = 30;
+    private static final int IA_DECISION_INTERVAL_TURNS = 2;
+    private static final String[] DIRECOES = {"UP", "DOWN", "LEFT", "RIGHT"};
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0};
+    private static final int[] OPOSTA = {1, 0, 3, 2};
+    private static final String VENCEDOR_ABORTADA = "ABORTADA";
+
+    private final String url;
+    private final int partidas;
+    private final long duracaoMs;
+    private final long tickMs;
+    private final long seed;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final Map<String, Amostras> porTier = new ConcurrentHashMap<>();
+    private final AtomicLong partidasConcluidas = new AtomicLong();
+    private final AtomicBoolean encerrar = new AtomicBoolean();
+
+    private TesteCarga(String url, int partidas, long duracaoMs, long tickMs, long seed) {
+        this.url = url;
+        this.partidas = partidas;
+        this.duracaoMs = duracaoMs;
+        this.tickMs = tickMs;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opcoes = new TreeMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            opcoes.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        TesteCarga teste = new TesteCarga(
+                opcoes.getOrDefault("url", "http://localhost:8087"),
+                Integer.parseInt(opcoes.getOrDefault("partidas", "20")),
+                Long.parseLong(opcoes.getOrDefault("duracao-s", "60")) * 1000,
+                Long.parseLong(opcoes.getOrDefault("tick-ms", "70")),
+                Long.parseLong(opcoes.getOrDefault("seed", "42")));
+        teste.executar();
+    }
+
+    private void executar() throws InterruptedException {
+        System.out.printf("Teste de carga: %d partidas simultâneas por %ds em %s (tick %d ms)%n",
+                partidas, duracaoMs / 1000, url, tickMs);
+
+        ExecutorService executor = Executors.newFixedThreadPool(partidas);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < partidas; i++) {
+            long semente = seed + i;
+            executor.submit(() -> jogarAteAcabar(new Random(semente)));
+        }
+
+        Thread.sleep(duracaoMs);
+        encerrar.set(true);
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+        executor.shutdownNow();
+
+        relatorio((System.nanoTime() - inicio) / 1e9);
+    }
+
+    // ========================= SIMULAÇÃO DE UMA PARTIDA =========================
+
+    private void jogarAteAcabar(Random rnd) {
+        while (!encerrar.get()) {
+            try {
+                jogarPartida(rnd);
+                partidasConcluidas.incrementAndGet();
+            } catch (Exception e) {
+                // servidor fora do ar ou pedido com erro: espera um pouco e começa outra partida
+                dormir(200);
+            }
+        }
+    }
+
+    /** Mesmo fluxo do resetGame() + gameTick() do tron.js. */
+    private void jogarPartida(Random rnd) throws Exception {
+        long partidaId = Long.parseLong(post("/api/partidas/nova", "").body().trim());
+
+        boolean[][] grid = new boolean[GRID_SIZE][GRID_SIZE];
+        int[] player = {8, GRID_SIZE / 2};
+        int[] bot = {GRID_SIZE - 9, GRID_SIZE / 2};
+        grid[player[1]][player[0]] = true;
+        grid[bot[1]][bot[0]] = true;
+
+        int playerDir = rnd.nextInt(4);
+        AtomicInteger botDir = new AtomicInteger(2); // LEFT; a resposta assíncrona grava de outra thread
+        AtomicBoolean pedidoEmAndamento = new AtomicBoolean();
+        int turno = 0;
+        int iaTurnCounter = 0;
+        String vencedor = null;
+
+        try {
+            while (true) {
+                if (encerrar.get()) return;
+                long inicioTick = System.nanoTime();
+                turno++;
+
+                playerDir = escolherDirecaoJogador(grid, player, playerDir, rnd);
+                if (!mover(grid, player, playerDir)) {
+                    vencedor = "BOT";
+                    break;
+                }
+
+                iaTurnCounter++;
+                if (iaTurnCounter >= IA_DECISION_INTERVAL_TURNS) {
+                    iaTurnCounter = 0;
+                    String corpo = corpoPedido(partidaId, grid, player, bot, turno, DIRECOES[botDir.get()]);
+                    if (tickMs == 0) {
+                        aplicarResposta(pedirMovimento(corpo), botDir);
+                    } else if (pedidoEmAndamento.compareAndSet(false, true)) {
+                        long enviado = System.nanoTime();
+                        http.sendAsync(requisicao("/api/ia/movimento", corpo), HttpResponse.BodyHandlers.ofString())
+                                .whenComplete((resp, erro) -> {
+                                    registrar(resp, erro, System.nanoTime() - enviado);
+                                    if (resp != null) aplicarResposta(resp, botDir);
+                                    pedidoEmAndamento.set(false);
+                                });
+                    }
+                }
+
+                if (!mover(grid, bot, botDir.get())) {
+                    vencedor = "PLAYER";
+                    break;
+                }
+
+                long restante = tickMs - (System.nanoTime() - inicioTick) / 1_000_000;
+                if (restante > 0) dormir(restante);
+            }
+        } finally {
+            // partida interrompida (encerramento ou erro) também é fechada: sem jogadas presas em MID
+            fecharPartida(partidaId, vencedor, turno);
+        }
+    }
+
+    private void fecharPartida(long partidaId, String vencedor, int turnos) throws Exception {
+        String corpo = "{\"partidaId\":" + partidaId + ",\"vencedor\":\""
+                + (vencedor == null ? VENCEDOR_ABORTADA : vencedor) + "\",\"turnos\":" + turnos + "}";
+        try {
+            post("/api/partidas/fim", corpo);
+        } catch (Exception e) {
+            // no encerramento o servidor pode já estar fora: não mascara o erro original
+            if (vencedor != null) throw e;
+        }
+    }
+
+    /** Jogador "humano": segue reto na maioria das vezes e nunca bate se puder evitar. */
+    private int escolherDirecaoJogador(boolean[][] grid, int[] player, int atual, Random rnd) {
+        List<Integer> seguras = new ArrayList<>();
+        for (int d = 0; d < 4; d++) {
+            if (d == OPOSTA[atual]) continue;
+            int nx = player[0] + DX[d];
+            int ny = player[1] + DY[d];
+            if (nx >= 0 && nx < GRID_SIZE && ny >= 0 && ny < GRID_SIZE && !grid[ny][nx]) seguras.add(d);
+        }
+        if (seguras.isEmpty()) return atual;
+        if (seguras.contains(atual) && rnd.nextDouble() < 0.8) return atual;
+        return seguras.get(rnd.nextInt(seguras.size()));
+    }
+
+    private static boolean mover(boolean[][] grid, int[] bike, int dir) {
+        int nx = bike[0] + DX[dir];
+        int ny = bike[1] + DY[dir];
+        if (nx < 0 || nx >= GRID_SIZE || ny < 0 || ny >= GRID_SIZE || grid[ny][nx]) return false;
+        bike[0] = nx;
+        bike[1] = ny;
+        grid[ny][nx] = true;
+        return true;
+    }
+
+    private static void aplicarResposta(HttpResponse<String> resp, AtomicInteger botDir) {
+        if (resp == null || resp.statusCode() != 200) return;
+        String dir = resp.body().trim().toUpperCase();
+        for (int d = 0; d < 4; d++) {
+            // impede o bot de virar "de costas", como no tron.js
+            if (DIRECOES[d].equals(dir) && d != OPOSTA[botDir.get()]) botDir.set(d);
+        }
+    }
+
+    /** Mesmo JSON do snapshotEstado() do tron.js (occupied em ordem de linha). */
+    private static String corpoPedido(long partidaId, boolean[][] grid, int[] player, int[] bot,
+                                      int turno, String botDirection) {
+        StringBuilder sb = new StringBuilder(8192);
+        sb.append("{\"partidaId\":").append(partidaId)
+          .append(",\"estado\":{\"boardSize\":").append(GRID_SIZE)
+          .append(",\"playerX\":").append(player[0])
+          .append(",\"playerY\":").append(player[1])
+          .append(",\"botX\":").append(bot[0])
+          .append(",\"botY\":").append(bot[1])
+          .append(",\"turno\":").append(turno)
+          .append(",\"botDirection\":\"").append(botDirection).append('"')
+          .append(",\"occupied\":[");
+        boolean primeiro = true;
+        for (int y = 0; y < GRID_SIZE; y++) {
+            for (int x = 0; x < GRID_SIZE; x++) {
+                if (!grid[y][x]) continue;
+                if (!primeiro) sb.append(',');
+                sb.append("{\"x\":").append(x).append(",\"y\":").append(y).append('}');
+                primeiro = false;
+            }
+        }
+        return sb.append("]}}").toString();
+    }
+
+    // ========================= HTTP =========================
+
+    private HttpResponse<String> pedirMovimento(String corpo) throws Exception {
+        long inicio = System.nanoTime();
+        HttpResponse<String> resp = null;
+        Throwable erro = null;
+        try {
+            resp = http.send(requisicao("/api/ia/movimento", corpo), HttpResponse.BodyHandlers.ofString());
+            return resp;
+        } catch (Exception e) {
+            erro = e;
+            throw e;
+        } finally {
+            registrar(resp, erro, System.nanoTime() - inicio);
+        }
+    }
+
+    private HttpResponse<String> post(String caminho, String corpo) throws Exception {
+        return http.send(requisicao(caminho, corpo), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest requisicao(String caminho, String corpo) {
+        return HttpRequest.newBuilder(URI.create(url + caminho))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+    }
+
+    private void registrar(HttpResponse<String> resp, Throwable erro, long nanos) {
+        String tier;
+        if (erro != null || resp == null) {
+            tier = "EXCECAO";
+        } else if (resp.statusCode() == 204) {
+            tier = "DESCARTADO";
+        } else if (resp.statusCode() != 200) {
+            tier = "HTTP_" + resp.statusCode();
+        } else {
+            tier = resp.headers().firstValue("X-Tron-Tier").orElse("DESCONHECIDO");
+        }
+        porTier.computeIfAbsent(tier, k -> new Amostras()).adicionar(nanos);
+    }
+
+    // ========================= RELATÓRIO =========================
+
+    private void relatorio(double segundos) {
+        Amostras total = new Amostras();
+        porTier.values().forEach(total::juntar);
+
+        System.out.printf("%nPartidas concluídas: %d | pedidos: %d | vazão: %.1f pedidos/s%n",
+                partidasConcluidas.get(), total.tamanho(), total.tamanho() / segundos);
+        System.out.printf("%-14s %9s %7s %10s %10s %10s %10s%n",
+                "tier", "pedidos", "%", "p50 ms", "p99 ms", "p999 ms", "max ms");
+
+        new TreeMap<>(porTier).forEach((tier, a) -> linha(tier, a, total.tamanho()));
+        linha("TOTAL", total, total.tamanho());
+    }
+
+    private static void linha(String tier, Amostras a, long total) {
+        long[] ordenadas = a.ordenadas();
+        System.out.printf("%-14s %9d %6.1f%% %10.2f %10.2f %10.2f %10.2f%n",
+                tier, ordenadas.length, 100.0 * ordenadas.length / Math.max(1, total),
+                percentil(ordenadas, 0.50), percentil(ordenadas, 0.99),
+                percentil(ordenadas, 0.999), percentil(ordenadas, 1.0));
+    }
+
+    private static double percentil(long[] ordenadas, double q) {
+        if (ordenadas.length == 0) return 0;
+        int i = (int) Math.ceil(q * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, Math.min(i, ordenadas.length - 1))] / 1e6;
+    }
+
+    /** Latências em nanos (lista crescente de long, sem boxing). */
+    private static final class Amostras {
+        private long[] valores = new long[1024];
+        private int tamanho;
+
+        synchronized void adicionar(long nanos) {
+            if (tamanho == valores.length) valores = Arrays.copyOf(valores, tamanho * 2);
+            valores[tamanho++] = nanos;
+        }
+
+        synchronized void juntar(Amostras outra) {
+            long[] deOutra = outra.ordenadas();
+            for (long v : deOutra) adicionar(v);
+        }
+
+        synchronized long tamanho() {
+            return tamanho;
+        }
+
+        synchronized long[] ordenadas() {
+            long[] copia = Arrays.copyOf(valores, tamanho);
+            Arrays.sort(copia);
+            return copia;
+        }
+    }
+
+    private static void dormir(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,14 +1,70 @@
 package com.clout.tron.config;
 
+import com.clout.tron.ai.ProvedorHttp;
+import com.clout.tron.ai.ProvedoresHttp;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
 
 @Configuration
 public class AiConfig {
 
+    // camada HTTP compartilhada: um cliente (pool + HTTP/2 + timeouts) por provedor
+    @Bean
+    public ProvedoresHttp provedoresHttp(
+            @Value("${tron.ai.http.gemini.connect-timeout-ms:2000}") long geminiConnect,
+            @Value("${tron.ai.http.gemini.read-timeout-ms:5000}") long geminiRead,
+            @Value("${tron.ai.http.openai.connect-timeout-ms:2000}") long openaiConnect,
+            @Value("${tron.ai.http.openai.read-timeout-ms:5000}") long openaiRead) {
+        return new ProvedoresHttp(
+                new ProvedorHttp("gemini", Duration.ofMillis(geminiConnect), Duration.ofMillis(geminiRead)),
+                new ProvedorHttp("openai", Duration.ofMillis(openaiConnect), Duration.ofMillis(openaiRead)));
+    }
+
+    // Gemini via endpoint OpenAI-compatible, com builders próprios (RestClient nas chamadas
+    // bloqueantes, WebClient no streaming): pool, timeouts e métricas do Gemini ficam só
+    // neste cliente, sem passar para os RestClient/WebClient do resto da aplicação
+    @Bean
+    public OpenAiApi geminiOpenAiApi(
+            ProvedoresHttp provedoresHttp,
+            @Value("${spring.ai.openai.base-url}") String baseUrl,
+            @Value("${spring.ai.openai.api-key:}") String apiKey,
+            @Value("${spring.ai.openai.chat.completions-path:/v1/chat/completions}") String completionsPath) {
+        return OpenAiApi.builder()
+                .baseUrl(baseUrl)
+                .apiKey(apiKey)
+                .completionsPath(completionsPath)
+                .restClientBuilder(provedoresHttp.gemini().configurar(RestClient.builder()))
+                .webClientBuilder(provedoresHttp.gemini().configurar(WebClient.builder()))
+                .build();
+    }
+
+    // substitui o OpenAiChatModel da auto-configuração (que usaria os builders globais)
+    @Bean
+    public OpenAiChatModel geminiChatModel(
+            @Qualifier("geminiOpenAiApi") OpenAiApi geminiOpenAiApi,
+            @Value("${spring.ai.openai.chat.options.model:gemini-2.0-flash}") String modelo,
+            @Value("${spring.ai.openai.chat.options.temperature:0.4}") double temperatura) {
+        return OpenAiChatModel.builder()
+                .openAiApi(geminiOpenAiApi)
+                .defaultOptions(OpenAiChatOptions.builder()
+                        .model(modelo)
+                        .temperature(temperatura)
+                        .build())
+                .build();
+    }
+
     @Bean
-    public ChatClient chatClient(ChatClient.Builder builder) {
-        return builder.build();
+    public ChatClient chatClient(@Qualifier("geminiChatModel") OpenAiChatModel geminiChatModel) {
+        return ChatClient.builder(geminiChatModel).build();
     }
 }
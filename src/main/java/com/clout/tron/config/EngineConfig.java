@@ -0,0 +1,77 @@
+package com.clout.tron.config;
+
+import com.clout.tron.engine.LivroAberturas;
+import com.clout.tron.engine.PontuacaoLocal;
+import com.clout.tron.engine.PreenchimentoEspacoSolver;
+import com.clout.tron.engine.RedePolitica;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+
+@Configuration
+@Slf4j
+public class EngineConfig {
+
+    @Bean
+    public PreenchimentoEspacoSolver preenchimentoEspacoSolver(
+            @Value("${tron.engine.endgame.tempo-limite-ms:40}") long tempoLimiteMs) {
+        return new PreenchimentoEspacoSolver(tempoLimiteMs);
+    }
+
+    /**
+     * Score local do fallback/triagem com buscas limitadas, para não crescer com o tabuleiro.
+     */
+    @Bean
+    public PontuacaoLocal pontuacaoLocal(
+            @Value("${tron.engine.busca.limite-area:1024}") int limiteArea,
+            @Value("${tron.engine.busca.raio-territorio:20}") int raioTerritorio) {
+        return new PontuacaoLocal(limiteArea, raioTerritorio);
+    }
+
+    /**
+     * Livro de aberturas carregado uma única vez na subida da aplicação.
+     * Se o recurso não existir ou estiver corrompido, segue com um livro vazio.
+     */
+    @Bean
+    public LivroAberturas livroAberturas(
+            @Value("${tron.engine.abertura.recurso:classpath:abertura/livro-aberturas.bin}") Resource recurso) {
+        if (!recurso.exists()) {
+            log.warn("Livro de aberturas não encontrado em {}. Seguindo sem livro.", recurso);
+            return LivroAberturas.vazio();
+        }
+        try (InputStream in = recurso.getInputStream()) {
+            LivroAberturas livro = LivroAberturas.ler(in);
+            log.info("Livro de aberturas carregado: {} estados.", livro.tamanho());
+            return livro;
+        } catch (Exception e) {
+            log.error("Erro ao carregar livro de aberturas. Seguindo sem livro.", e);
+            return LivroAberturas.vazio();
+        }
+    }
+
+    /**
+     * Rede de política treinada offline (TreinadorRedePolitica).
+     * Sem arquivo de pesos o tier fica desligado.
+     */
+    @Bean
+    public RedePolitica redePolitica(
+            @Value("${tron.engine.politica.recurso:classpath:politica/rede-politica.bin}") Resource recurso) {
+        if (!recurso.exists()) {
+            log.info("Pesos da rede de política não encontrados em {}. Tier desligado.", recurso);
+            return RedePolitica.vazia();
+        }
+        try (InputStream in = recurso.getInputStream()) {
+            RedePolitica rede = RedePolitica.ler(in);
+            log.info("Rede de política carregada: janela {}x{}, {} neurônios ocultos.",
+                    rede.getJanela(), rede.getJanela(), rede.getOculta());
+            return rede;
+        } catch (Exception e) {
+            log.error("Erro ao carregar rede de política. Tier desligado.", e);
+            return RedePolitica.vazia();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.clout.tron.controller;
+
+import com.clout.tron.service.AnaliseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+
+@Controller
+@RequestMapping("/api/analise")
+@RequiredArgsConstructor
+public class AnaliseController {
+
+    private final AnaliseService analiseService;
+
+    // tamanho e idade do snapshot em memória
+    @GetMapping("/resumo")
+    @ResponseBody
+    public ResponseEntity<AnaliseService.Resumo> resumo() {
+        return ResponseEntity.ok(analiseService.resumo());
+    }
+
+    @GetMapping("/vitorias-por-turno")
+    @ResponseBody
+    public ResponseEntity<List<AnaliseService.FaixaTurno>> vitoriasPorTurno(
+            @RequestParam(defaultValue = "25") int faixa) {
+        return ResponseEntity.ok(analiseService.vitoriasPorTurno(faixa));
+    }
+
+    @GetMapping("/mapa-direcoes")
+    @ResponseBody
+    public ResponseEntity<List<AnaliseService.RegiaoDirecoes>> mapaDirecoes(
+            @RequestParam(defaultValue = "5") int regiao) {
+        return ResponseEntity.ok(analiseService.mapaDirecoes(regiao));
+    }
+
+    @GetMapping("/tiers")
+    @ResponseBody
+    public ResponseEntity<List<AnaliseService.DesempenhoTier>> tiers() {
+        return ResponseEntity.ok(analiseService.desempenhoPorTier());
+    }
+
+    @GetMapping("/partidas-por-duracao")
+    @ResponseBody
+    public ResponseEntity<List<AnaliseService.FaixaDuracao>> partidasPorDuracao(
+            @RequestParam(defaultValue = "50") int faixa) {
+        return ResponseEntity.ok(analiseService.partidasPorDuracao(faixa));
+    }
+}
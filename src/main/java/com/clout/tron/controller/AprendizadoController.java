@@ -0,0 +1,33 @@
+package com.clout.tron.controller;
+
+import com.clout.tron.service.AprendizadoService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.Map;
+
+@Controller
+@RequiredArgsConstructor
+public class AprendizadoController {
+
+    private final AprendizadoService aprendizadoService;
+
+    // contadores deste nó e o que ele já recebeu dos outros (para comparar instâncias)
+    @GetMapping("/api/aprendizado")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> estado() {
+        return ResponseEntity.ok(aprendizadoService.estado());
+    }
+
+    // sincroniza agora, sem esperar o intervalo
+    @PostMapping("/api/aprendizado/sincronizar")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> sincronizar() {
+        aprendizadoService.sincronizar();
+        return ResponseEntity.ok(aprendizadoService.estado());
+    }
+}
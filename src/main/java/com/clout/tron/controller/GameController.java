@@ -3,6 +3,9 @@ package com.clout.tron.controller;
 import com.clout.tron.dto.EstadoDTO;
 import com.clout.tron.dto.FimPartidaRequest;
 import com.clout.tron.dto.MovimentoIARequest;
+import com.clout.tron.service.CoalescenciaDecisaoService;
+import com.clout.tron.service.ConectividadePartidaService;
+import com.clout.tron.service.DecisaoIA;
 import com.clout.tron.service.JogadaService;
 import com.clout.tron.service.PartidaService;
 import com.clout.tron.service.TronAiService;
@@ -18,6 +21,8 @@ public class GameController {
     private final TronAiService tronAiService;
     private final PartidaService partidaService;
     private final JogadaService jogadaService;
+    private final CoalescenciaDecisaoService coalescenciaDecisaoService;
+    private final ConectividadePartidaService conectividadePartidaService;
 
     @GetMapping("/")
     public String index() {
@@ -38,6 +43,9 @@ public class GameController {
     }
 
     // movimento da IA
+    // pedidos repetidos do mesmo turno compartilham a decisão; turnos antigos e pedidos
+    // de partida já encerrada recebem 204
+    // o header X-Tron-Tier informa qual camada do motor respondeu (usado no teste de carga)
     @PostMapping("/api/ia/movimento")
     @ResponseBody
     public ResponseEntity<String> movimentoIA(@RequestBody MovimentoIARequest req) {
@@ -45,12 +53,25 @@ public class GameController {
         Long partidaId = req.getPartidaId();
         EstadoDTO estado = req.getEstado();
 
-        String acao = tronAiService.decidirMovimento(estado);
+        CoalescenciaDecisaoService.Resultado<DecisaoIA> resultado =
+                coalescenciaDecisaoService.decidir(partidaId, estado.getTurno(), obsoleta -> {
+                    DecisaoIA decisao = tronAiService.decidir(partidaId, estado, obsoleta);
 
-        // registra jogada no histórico
-        jogadaService.registrar(partidaId, estado.getTurno(), estado, acao);
+                    // registra jogada no histórico (só se ainda for a decisão do turno atual e a
+                    // partida não tiver terminado: depois do fim a jogada ficaria em MID)
+                    if (!obsoleta.getAsBoolean()) {
+                        coalescenciaDecisaoService.seAtiva(partidaId, () -> jogadaService.registrar(partidaId,
+                                estado.getTurno(), estado, decisao.direcao(), decisao.tier().name()));
+                    }
+                    return decisao;
+                });
 
-        return ResponseEntity.ok(acao);
+        if (resultado.obsoleta()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok()
+                .header("X-Tron-Tier", resultado.valor().tier().name())
+                .body(resultado.valor().direcao());
     }
 
     // fim de partida
@@ -58,8 +79,12 @@ public class GameController {
     @ResponseBody
     public ResponseEntity<Void> fimPartida(@RequestBody FimPartidaRequest req) {
         partidaService.finalizar(req.getPartidaId(), req.getVencedor(), req.getTurnos());
+        coalescenciaDecisaoService.encerrar(req.getPartidaId());
+        conectividadePartidaService.encerrar(req.getPartidaId());
 
-        String resultadoBot = "PLAYER".equalsIgnoreCase(req.getVencedor()) ? "LOSE" : "WIN";
+        // partida abortada (ex.: teste de carga interrompido) fecha as jogadas sem contar resultado
+        String resultadoBot = "PLAYER".equalsIgnoreCase(req.getVencedor()) ? "LOSE"
+                : "BOT".equalsIgnoreCase(req.getVencedor()) ? "WIN" : "ABORT";
         jogadaService.marcarResultadoPartida(req.getPartidaId(), resultadoBot);
 
         return ResponseEntity.ok().build();
@@ -0,0 +1,24 @@
+package com.clout.tron.controller;
+
+import com.clout.tron.ai.ProvedoresHttp;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.Map;
+
+@Controller
+@RequiredArgsConstructor
+public class ProvedorController {
+
+    private final ProvedoresHttp provedoresHttp;
+
+    // métricas dos clientes HTTP dos provedores de IA
+    @GetMapping("/api/ia/provedores/metricas")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> metricas() {
+        return ResponseEntity.ok(provedoresHttp.metricas());
+    }
+}
@@ -0,0 +1,39 @@
+package com.clout.tron.controller;
+
+import com.clout.tron.service.RetencaoJogadasService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+@Controller
+@RequiredArgsConstructor
+public class RetencaoController {
+
+    private final RetencaoJogadasService retencaoJogadasService;
+
+    // a execução manual apaga jogadas: fica desligada fora de manutenção
+    @Value("${tron.retencao.execucao-manual:false}")
+    private boolean execucaoManual;
+
+    // resumo da última execução (204 enquanto nenhuma rodou)
+    @GetMapping("/api/retencao")
+    @ResponseBody
+    public ResponseEntity<RetencaoJogadasService.Execucao> ultimaExecucao() {
+        RetencaoJogadasService.Execucao execucao = retencaoJogadasService.ultimaExecucao();
+        return execucao == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(execucao);
+    }
+
+    // roda agora, sem esperar o intervalo: 404 sem execucao-manual, 409 com a retenção desligada
+    @PostMapping("/api/retencao/executar")
+    @ResponseBody
+    public ResponseEntity<RetencaoJogadasService.Execucao> executar() {
+        if (!execucaoManual) return ResponseEntity.notFound().build();
+        if (!retencaoJogadasService.habilitada()) return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        return ResponseEntity.ok(retencaoJogadasService.executar());
+    }
+}
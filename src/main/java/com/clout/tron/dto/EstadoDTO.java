@@ -18,6 +18,10 @@ public class EstadoDTO {
 
     private List<Posicao> occupied;
 
+    // cabeças das demais motos adversárias em partidas com mais de 2 motos
+    // (o jogador continua em playerX/playerY; null ou vazio = 1 contra 1)
+    private List<Posicao> oponentes;
+
     @Data
     public static class Posicao {
         private int x;
@@ -6,6 +6,6 @@ import lombok.Data;
 public class FimPartidaRequest {
 
     private Long partidaId;
-    private String vencedor; // "PLAYER" ou "BOT"
+    private String vencedor; // "PLAYER", "BOT" ou "ABORTADA" (partida interrompida)
     private int turnos;
 }
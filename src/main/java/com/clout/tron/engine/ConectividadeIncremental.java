@@ -0,0 +1,659 @@
+package com.clout.tron.engine;
+
+import java.util.Arrays;
+
+/**
+ * Conectividade e território de uma partida 1 contra 1 mantidos de forma incremental.
+ *
+ * Entre dois pedidos só entram algumas células de rastro e as cabeças andam, então em
+ * vez de refazer flood fills a cada decisão a estrutura guarda:
+ * - o rótulo da região de cada célula livre e o tamanho de cada região. Ao ocupar uma
+ *   célula, BFS intercaladas a partir dos vizinhos livres detectam se a região se partiu
+ *   e só o lado menor é reetiquetado;
+ * - os campos de distância (BFS) a partir das duas cabeças. Células que perderam o
+ *   caminho mais curto são invalidadas em ordem de distância e recalculadas só dentro
+ *   da área afetada. Quando o reparo passa de uma fração do tabuleiro (cabeça andando
+ *   em campo aberto muda a distância de quase tudo) ele é abandonado e o campo é
+ *   refeito por uma BFS simples, que custa menos por célula;
+ * - a contagem de células mais perto de cada moto (Voronoi), ajustada a cada mudança
+ *   de distância.
+ *
+ * Depois de {@link #aplicar} as consultas são O(1), menos {@link #territorioAPartirDe},
+ * que usa o campo do jogador já pronto e só percorre o território do bot. Índices de célula usam
+ * y * n + x; as cabeças são células ocupadas que servem de origem das distâncias.
+ * Não é thread-safe: o dono deve serializar o acesso.
+ */
+public final class ConectividadeIncremental {
+
+    public static final int INFINITO = Integer.MAX_VALUE;
+
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0};
+
+    private final int n;
+    private final int celulas;
+    private final boolean[] livre;
+    private int ocupadas;
+
+    // ===== regiões =====
+    private final int[] regiao;           // -1 nas ocupadas
+    private int[] tamanho = new int[16];
+    private int regioes;
+    private int divisoes;
+
+    // ===== distâncias e território =====
+    private final Campo campoBot;
+    private final Campo campoJogador;
+    private int territorioBot;
+    private int territorioJogador;
+
+    // ===== rascunho da detecção de divisão =====
+    private final int[][] filas = new int[4][];
+    private final int[] iniFila = new int[4];
+    private final int[] fimFila = new int[4];
+    private final int[] grupo = new int[4];
+    private final int[] visitaEm;
+    private final byte[] visitaBusca;
+    private int geracaoVisita;
+
+    // ===== rascunho do reparo de distâncias =====
+    private final FilaBaldes baldes;
+    private final int[] invalidoEm;
+    private int geracaoInvalido;
+    private int[] invalidados = new int[64];
+    private int qtdInvalidados;
+    private final int[] filaReconstrucao;
+
+    // células alteradas por reparo antes de desistir e refazer o campo (fração de n²)
+    private static final int FRACAO_ORCAMENTO_REPARO = 8;
+    // depois de um estouro, refaz direto por algumas atualizações antes de tentar de novo
+    private static final int PAUSA_APOS_ESTOURO = 4;
+
+    private final int orcamentoReparo;
+    private int reconstrucoes;
+
+    public ConectividadeIncremental(int n, boolean[] livreInicial, int cabecaBot, int cabecaJogador) {
+        this.n = n;
+        this.celulas = n * n;
+        this.livre = Arrays.copyOf(livreInicial, celulas);
+        this.regiao = new int[celulas];
+        this.visitaEm = new int[celulas];
+        this.visitaBusca = new byte[celulas];
+        this.invalidoEm = new int[celulas];
+        this.baldes = new FilaBaldes(celulas);
+        this.filaReconstrucao = new int[celulas];
+        this.campoBot = new Campo();
+        this.campoJogador = new Campo();
+        this.orcamentoReparo = Math.max(64, celulas / FRACAO_ORCAMENTO_REPARO);
+
+        for (boolean l : livre) if (!l) ocupadas++;
+        rotularRegioes();
+        campoBot.reconstruir(cabecaBot);
+        campoJogador.reconstruir(cabecaJogador);
+        recontarTerritorio();
+    }
+
+    // =====================================================================
+    // CONSULTAS O(1)
+    // =====================================================================
+
+    public int lado() {
+        return n;
+    }
+
+    public int ocupadas() {
+        return ocupadas;
+    }
+
+    public boolean livre(int celula) {
+        return livre[celula];
+    }
+
+    /** Tamanho da região da célula (0 se ocupada). */
+    public int tamanhoRegiao(int celula) {
+        return livre[celula] ? tamanho[regiao[celula]] : 0;
+    }
+
+    public int distanciaBot(int celula) {
+        return campoBot.dist[celula];
+    }
+
+    public int distanciaJogador(int celula) {
+        return campoJogador.dist[celula];
+    }
+
+    public int territorioBot() {
+        return territorioBot;
+    }
+
+    public int territorioJogador() {
+        return territorioJogador;
+    }
+
+    /**
+     * Território do bot se ele andar para a célula livre "celula": quantas outras células
+     * livres ele alcança antes do jogador (distância a partir dela estritamente menor que
+     * {@link #distanciaJogador}; empates não contam). O lado do jogador já está no campo de
+     * distância, então a BFS só visita o território do bot. Com as motos separadas vale o
+     * tamanho da região menos 1.
+     */
+    public int territorioAPartirDe(int celula) {
+        if (celula < 0 || celula >= celulas || !livre[celula]) return 0;
+        geracaoVisita = proximaGeracao(geracaoVisita, visitaEm);
+        int[] fila = filaReconstrucao;
+        int ini = 0, fim = 0;
+        visitaEm[celula] = geracaoVisita;
+        fila[fim++] = celula;
+
+        // por camadas: a distância de cada célula é o número da camada, sem array próprio
+        int camada = 0;
+        while (ini < fim) {
+            int fimCamada = fim;
+            camada++;
+            while (ini < fimCamada) {
+                int atual = fila[ini++];
+                for (int d = 0; d < 4; d++) {
+                    int v = vizinho(atual, d);
+                    if (v < 0 || !livre[v] || visitaEm[v] == geracaoVisita) continue;
+                    if (campoJogador.dist[v] <= camada) continue; // jogador chega antes ou junto
+                    visitaEm[v] = geracaoVisita;
+                    fila[fim++] = v;
+                }
+            }
+        }
+        return fim - 1;
+    }
+
+    /** Quantas vezes um campo de distância foi refeito inteiro por estourar o orçamento. */
+    public int reconstrucoes() {
+        return reconstrucoes;
+    }
+
+    /** Quantas vezes uma região já se partiu em duas ou mais. */
+    public int divisoes() {
+        return divisoes;
+    }
+
+    /**
+     * true se as cabeças se encostam ou se alguma célula livre vizinha do bot está na
+     * mesma região que alguma vizinha do jogador (as cabeças em si são ocupadas).
+     */
+    public boolean cabecasConectadas() {
+        int b = campoBot.fonte, j = campoJogador.fonte;
+        if (b < 0 || j < 0) return false;
+        if (vizinhoAdjacente(b, j)) return true;
+        for (int d = 0; d < 4; d++) {
+            int vb = vizinho(b, d);
+            if (vb < 0 || !livre[vb]) continue;
+            if (vizinhoAdjacente(vb, j)) return true;
+            for (int e = 0; e < 4; e++) {
+                int vj = vizinho(j, e);
+                if (vj >= 0 && livre[vj] && regiao[vj] == regiao[vb]) return true;
+            }
+        }
+        return false;
+    }
+
+    // =====================================================================
+    // ATUALIZAÇÃO
+    // =====================================================================
+
+    /**
+     * Aplica as células ocupadas desde a última chamada (rastro e cabeças novas) e
+     * move as origens das distâncias para as cabeças atuais.
+     */
+    public void aplicar(int[] novasOcupadas, int qtd, int cabecaBot, int cabecaJogador) {
+        for (int i = 0; i < qtd; i++) {
+            ocupar(novasOcupadas[i]);
+        }
+        boolean exato = campoBot.reparar(novasOcupadas, qtd, cabecaBot);
+        exato &= campoJogador.reparar(novasOcupadas, qtd, cabecaJogador);
+        if (!exato) recontarTerritorio();
+    }
+
+    private void ocupar(int c) {
+        if (c < 0 || c >= celulas || !livre[c]) return;
+
+        int antes = classe(c);
+        livre[c] = false;
+        ajustarTerritorio(antes, 0);
+        ocupadas++;
+
+        int r = regiao[c];
+        regiao[c] = -1;
+        tamanho[r]--;
+
+        // vizinhos livres: todos na região r
+        int k = 0;
+        for (int d = 0; d < 4; d++) {
+            int v = vizinho(c, d);
+            if (v >= 0 && livre[v]) {
+                if (filas[k] == null) filas[k] = new int[celulas];
+                filas[k][0] = v;
+                k++;
+            }
+        }
+        if (k > 1) {
+            detectarDivisao(k, r);
+        }
+    }
+
+    /**
+     * BFS intercaladas a partir dos k vizinhos livres da célula recém-ocupada. Buscas que
+     * se encontram são unidas; um grupo que se esgota sem encontrar os demais é uma
+     * região nova e recebe um rótulo próprio. Para assim que sobra um grupo só, então o
+     * custo é proporcional aos lados menores.
+     */
+    private void detectarDivisao(int k, int r) {
+        geracaoVisita = proximaGeracao(geracaoVisita, visitaEm);
+        for (int i = 0; i < k; i++) {
+            int v = filas[i][0];
+            iniFila[i] = 0;
+            fimFila[i] = 1;
+            grupo[i] = i;
+            visitaEm[v] = geracaoVisita;
+            visitaBusca[v] = (byte) i;
+        }
+        int ativos = k;
+
+        while (ativos > 1) {
+            for (int i = 0; i < k && ativos > 1; i++) {
+                if (iniFila[i] >= fimFila[i]) continue;
+                int atual = filas[i][iniFila[i]++];
+                for (int d = 0; d < 4; d++) {
+                    int v = vizinho(atual, d);
+                    if (v < 0 || !livre[v]) continue;
+                    if (visitaEm[v] == geracaoVisita) {
+                        if (raiz(visitaBusca[v]) != raiz(i)) {
+                            unir(i, visitaBusca[v]);
+                            ativos = contarGrupos(k);
+                        }
+                        continue;
+                    }
+                    visitaEm[v] = geracaoVisita;
+                    visitaBusca[v] = (byte) i;
+                    filas[i][fimFila[i]++] = v;
+                }
+            }
+
+            // grupo esgotado enquanto outros seguem: é uma região separada
+            for (int i = 0; i < k && ativos > 1; i++) {
+                if (raiz(i) != i || !grupoEsgotado(i, k)) continue;
+                separarGrupo(i, k, r);
+                ativos = contarGrupos(k);
+            }
+        }
+    }
+
+    private void separarGrupo(int raizGrupo, int k, int r) {
+        boolean[] membro = new boolean[4];
+        for (int i = 0; i < k; i++) membro[i] = raiz(i) == raizGrupo;
+
+        int novo = novaRegiao();
+        int cont = 0;
+        for (int i = 0; i < k; i++) {
+            if (!membro[i]) continue;
+            for (int p = 0; p < fimFila[i]; p++) {
+                regiao[filas[i][p]] = novo;
+            }
+            cont += fimFila[i];
+            grupo[i] = -1; // fora da disputa
+        }
+        tamanho[novo] = cont;
+        tamanho[r] -= cont;
+        divisoes++;
+    }
+
+    private boolean grupoEsgotado(int raizGrupo, int k) {
+        for (int i = 0; i < k; i++) {
+            if (raiz(i) == raizGrupo && iniFila[i] < fimFila[i]) return false;
+        }
+        return true;
+    }
+
+    private int raiz(int i) {
+        while (grupo[i] >= 0 && grupo[i] != i) i = grupo[i];
+        return grupo[i] < 0 ? -1 : i;
+    }
+
+    private void unir(int a, int b) {
+        int ra = raiz(a), rb = raiz(b);
+        if (ra >= 0 && rb >= 0 && ra != rb) grupo[Math.max(ra, rb)] = Math.min(ra, rb);
+    }
+
+    private int contarGrupos(int k) {
+        int cont = 0;
+        for (int i = 0; i < k; i++) if (grupo[i] == i) cont++;
+        return cont;
+    }
+
+    private void rotularRegioes() {
+        Arrays.fill(regiao, -1);
+        int[] fila = new int[celulas];
+        for (int s = 0; s < celulas; s++) {
+            if (!livre[s] || regiao[s] >= 0) continue;
+            int id = novaRegiao();
+            int ini = 0, fim = 0;
+            regiao[s] = id;
+            fila[fim++] = s;
+            while (ini < fim) {
+                int atual = fila[ini++];
+                for (int d = 0; d < 4; d++) {
+                    int v = vizinho(atual, d);
+                    if (v < 0 || !livre[v] || regiao[v] >= 0) continue;
+                    regiao[v] = id;
+                    fila[fim++] = v;
+                }
+            }
+            tamanho[id] = fim;
+        }
+    }
+
+    private int novaRegiao() {
+        if (regioes == tamanho.length) tamanho = Arrays.copyOf(tamanho, regioes * 2);
+        return regioes++;
+    }
+
+    // =====================================================================
+    // TERRITÓRIO
+    // =====================================================================
+
+    /** 0 = ninguém/empate/ocupada, 1 = bot mais perto, 2 = jogador mais perto */
+    private int classe(int c) {
+        if (!livre[c]) return 0;
+        int b = campoBot.dist[c], j = campoJogador.dist[c];
+        if (b < j) return 1;
+        if (j < b) return 2;
+        return 0;
+    }
+
+    private void recontarTerritorio() {
+        territorioBot = 0;
+        territorioJogador = 0;
+        for (int c = 0; c < celulas; c++) ajustarTerritorio(0, classe(c));
+    }
+
+    private void ajustarTerritorio(int antes, int depois) {
+        if (antes == depois) return;
+        if (antes == 1) territorioBot--;
+        else if (antes == 2) territorioJogador--;
+        if (depois == 1) territorioBot++;
+        else if (depois == 2) territorioJogador++;
+    }
+
+    // =====================================================================
+    // CAMPO DE DISTÂNCIA
+    // =====================================================================
+
+    private final class Campo {
+
+        final int[] dist = new int[celulas];
+        int fonte = -1;
+        private int restante;
+        private int pausa;
+
+        Campo() {
+            Arrays.fill(dist, INFINITO);
+        }
+
+        void definir(int c, int d) {
+            if (dist[c] == d) return;
+            int antes = classe(c);
+            dist[c] = d;
+            ajustarTerritorio(antes, classe(c));
+            restante--;
+        }
+
+        /**
+         * BFS completa sem manter o território; quem chama reconta depois.
+         */
+        void reconstruir(int novaFonte) {
+            Arrays.fill(dist, INFINITO);
+            fonte = valida(novaFonte) ? novaFonte : -1;
+            if (fonte < 0) return;
+
+            int[] fila = filaReconstrucao;
+            int ini = 0, fim = 0;
+            dist[fonte] = 0;
+            fila[fim++] = fonte;
+            while (ini < fim) {
+                int atual = fila[ini++];
+                int proxima = dist[atual] + 1;
+                int x = atual % n;
+                // vizinhos sem divisão por célula: é o laço mais quente da estrutura
+                if (x > 0) fim = visitar(atual - 1, proxima, fila, fim);
+                if (x < n - 1) fim = visitar(atual + 1, proxima, fila, fim);
+                if (atual >= n) fim = visitar(atual - n, proxima, fila, fim);
+                if (atual < celulas - n) fim = visitar(atual + n, proxima, fila, fim);
+            }
+        }
+
+        private int visitar(int v, int d, int[] fila, int fim) {
+            if (!livre[v] || dist[v] != INFINITO) return fim;
+            dist[v] = d;
+            fila[fim] = v;
+            return fim + 1;
+        }
+
+        private boolean estourou() {
+            return restante < 0;
+        }
+
+        /**
+         * A) com a origem ainda na cabeça antiga, as células recém-ocupadas viram parede;
+         * B) a cabeça nova vira origem e propaga as distâncias que diminuíram;
+         * C) a cabeça antiga deixa de ser origem.
+         * A e C invalidam, em ordem crescente de distância, quem ficou sem vizinho válido a
+         * distância - 1 e recalculam só essas células a partir da borda válida. Como o campo
+         * está exato antes de cada etapa, o resultado é o mesmo de uma BFS completa.
+         *
+         * Retorna false quando refez o campo inteiro (orçamento estourado ou origem
+         * inválida); nesse caso o território precisa ser recontado.
+         */
+        boolean reparar(int[] bloqueadas, int qtd, int novaFonte) {
+            int antiga = fonte;
+            if (!valida(novaFonte) || antiga < 0 || pausa > 0) {
+                if (pausa > 0) pausa--;
+                refazer(novaFonte);
+                return false;
+            }
+            restante = orcamentoReparo;
+
+            // A) novas paredes
+            baldes.limpar();
+            for (int i = 0; i < qtd; i++) {
+                int c = bloqueadas[i];
+                if (valida(c) && c != antiga && dist[c] != INFINITO) baldes.inserir(dist[c], c);
+            }
+            if (!invalidarERecalcular()) {
+                estourar(novaFonte);
+                return false;
+            }
+            if (novaFonte == antiga) return true;
+
+            // B) nova origem: BFS que só segue enquanto a distância melhora
+            fonte = novaFonte;
+            definir(novaFonte, 0);
+            baldes.limpar();
+            baldes.inserir(0, novaFonte);
+            int[] atual = new int[2];
+            while (baldes.remover(atual)) {
+                int c = atual[1], dc = atual[0];
+                if (dist[c] != dc) continue;
+                for (int d = 0; d < 4; d++) {
+                    int v = vizinho(c, d);
+                    if (v < 0 || !livre[v] || dist[v] <= dc + 1) continue;
+                    definir(v, dc + 1);
+                    baldes.inserir(dc + 1, v);
+                }
+                if (estourou()) {
+                    estourar(novaFonte);
+                    return false;
+                }
+            }
+
+            // C) a origem antiga vira parede comum
+            baldes.limpar();
+            baldes.inserir(0, antiga);
+            if (!invalidarERecalcular()) {
+                estourar(novaFonte);
+                return false;
+            }
+            return true;
+        }
+
+        private void estourar(int novaFonte) {
+            pausa = PAUSA_APOS_ESTOURO;
+            refazer(novaFonte);
+        }
+
+        private void refazer(int novaFonte) {
+            baldes.limpar();
+            reconstruir(novaFonte);
+            reconstrucoes++;
+        }
+
+        /**
+         * Consome os baldes já semeados com células que deixaram de ser caminho (paredes
+         * novas ou origem antiga) e repara o campo. false se o orçamento acabou no meio.
+         */
+        private boolean invalidarERecalcular() {
+            geracaoInvalido = proximaGeracao(geracaoInvalido, invalidoEm);
+            qtdInvalidados = 0;
+
+            int[] atual = new int[2];
+            while (baldes.remover(atual)) {
+                int x = atual[1], dx = atual[0];
+                if (x != fonte && !livre[x]) definir(x, INFINITO); // parede: sai do campo
+                for (int d = 0; d < 4; d++) {
+                    int v = vizinho(x, d);
+                    if (v < 0 || !livre[v] || invalidoEm[v] == geracaoInvalido) continue;
+                    if (dist[v] != dx + 1 || temPaiValido(v)) continue;
+                    invalidoEm[v] = geracaoInvalido;
+                    if (qtdInvalidados == invalidados.length) {
+                        invalidados = Arrays.copyOf(invalidados, qtdInvalidados * 2);
+                    }
+                    invalidados[qtdInvalidados++] = v;
+                    baldes.inserir(dist[v], v);
+                }
+                if (qtdInvalidados > restante) return false;
+            }
+
+            // recálculo das invalidadas (Dijkstra com baldes, pesos unitários)
+            baldes.limpar();
+            for (int i = 0; i < qtdInvalidados; i++) {
+                int v = invalidados[i];
+                int melhor = INFINITO;
+                for (int d = 0; d < 4; d++) {
+                    int u = vizinho(v, d);
+                    if (u < 0 || invalidoEm[u] == geracaoInvalido) continue;
+                    if (u == fonte) melhor = 1;
+                    else if (livre[u] && dist[u] != INFINITO) melhor = Math.min(melhor, dist[u] + 1);
+                }
+                definir(v, melhor);
+                if (melhor != INFINITO) baldes.inserir(melhor, v);
+            }
+            while (baldes.remover(atual)) {
+                int c = atual[1], dc = atual[0];
+                if (dist[c] != dc) continue;
+                for (int d = 0; d < 4; d++) {
+                    int v = vizinho(c, d);
+                    if (v < 0 || invalidoEm[v] != geracaoInvalido || dist[v] <= dc + 1) continue;
+                    definir(v, dc + 1);
+                    baldes.inserir(dc + 1, v);
+                }
+            }
+            return true;
+        }
+
+        private boolean temPaiValido(int v) {
+            int alvo = dist[v] - 1;
+            for (int d = 0; d < 4; d++) {
+                int u = vizinho(v, d);
+                if (u < 0) continue;
+                if (u == fonte) {
+                    if (alvo == 0) return true;
+                    continue;
+                }
+                if (livre[u] && invalidoEm[u] != geracaoInvalido && dist[u] == alvo) return true;
+            }
+            return false;
+        }
+
+        private boolean valida(int c) {
+            return c >= 0 && c < celulas;
+        }
+    }
+
+    /**
+     * Fila de prioridade monotônica por distância (baldes), com entradas em arrays
+     * reaproveitados. Só é consumida em ordem crescente.
+     */
+    private static final class FilaBaldes {
+
+        private final int[] cabeca;
+        private int[] celula = new int[256];
+        private int[] proximo = new int[256];
+        private int entradas;
+        private int cursor;
+        private int maior = -1;
+
+        FilaBaldes(int celulas) {
+            cabeca = new int[celulas + 2];
+            Arrays.fill(cabeca, -1);
+        }
+
+        void limpar() {
+            for (int d = cursor; d <= maior; d++) cabeca[d] = -1;
+            entradas = 0;
+            cursor = 0;
+            maior = -1;
+        }
+
+        void inserir(int dist, int c) {
+            if (entradas == celula.length) {
+                celula = Arrays.copyOf(celula, entradas * 2);
+                proximo = Arrays.copyOf(proximo, entradas * 2);
+            }
+            celula[entradas] = c;
+            proximo[entradas] = cabeca[dist];
+            cabeca[dist] = entradas++;
+            if (dist > maior) maior = dist;
+            if (dist < cursor) cursor = dist;
+        }
+
+        /** saida = [distância, célula]; false quando vazia */
+        boolean remover(int[] saida) {
+            while (cursor <= maior && cabeca[cursor] < 0) cursor++;
+            if (cursor > maior) return false;
+            int e = cabeca[cursor];
+            cabeca[cursor] = proximo[e];
+            saida[0] = cursor;
+            saida[1] = celula[e];
+            return true;
+        }
+    }
+
+    // =====================================================================
+    // AUXILIARES
+    // =====================================================================
+
+    private int vizinho(int c, int d) {
+        int x = c % n + DX[d], y = c / n + DY[d];
+        if (x < 0 || x >= n || y < 0 || y >= n) return -1;
+        return y * n + x;
+    }
+
+    private boolean vizinhoAdjacente(int c, int alvo) {
+        for (int d = 0; d < 4; d++) if (vizinho(c, d) == alvo) return true;
+        return false;
+    }
+
+    private static int proximaGeracao(int geracao, int[] marcas) {
+        if (geracao == Integer.MAX_VALUE) {
+            Arrays.fill(marcas, 0);
+            return 1;
+        }
+        return geracao + 1;
+    }
+}
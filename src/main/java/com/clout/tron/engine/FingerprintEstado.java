@@ -0,0 +1,52 @@
+package com.clout.tron.engine;
+
+/**
+ * Impressão digital de 64 bits de um estado do tabuleiro.
+ *
+ * As células ocupadas entram como soma de hashes (independe da ordem da lista
+ * "occupied"); cabeças, direção do bot e tamanho do tabuleiro são misturados no final.
+ * Não é criptográfica: serve como chave de lookup (livro de aberturas, agregados).
+ */
+public final class FingerprintEstado {
+
+    private FingerprintEstado() {
+    }
+
+    /** Sobre o vetor livre[y * n + x] usado pelos solvers e pelo gerador do livro. */
+    public static long calcular(boolean[] livre, int n, int playerX, int playerY,
+                                int botX, int botY, String botDirection) {
+        long soma = 0;
+        for (int i = 0; i < n * n; i++) {
+            if (!livre[i]) soma += mix(i);
+        }
+        return combinar(soma, n, playerX, playerY, botX, botY, botDirection);
+    }
+
+    /** Mesmo cálculo, sobre as ocupadas do tabuleiro de trabalho: O(ocupadas), sem varrer n². */
+    public static long calcular(TabuleiroTrabalho t, int playerX, int playerY,
+                                int botX, int botY, String botDirection) {
+        long soma = 0;
+        for (int i = 0; i < t.qtdOcupadas(); i++) {
+            soma += mix(t.ocupada(i));
+        }
+        return combinar(soma, t.lado(), playerX, playerY, botX, botY, botDirection);
+    }
+
+    private static long combinar(long somaCelulas, int n, int playerX, int playerY,
+                                 int botX, int botY, String botDirection) {
+        long h = mix(somaCelulas ^ 0x5452_4F4E_4C49_5652L);
+        h = mix(h ^ n);
+        h = mix(h ^ ((long) playerX << 16 | playerY));
+        h = mix(h ^ ((long) botX << 16 | botY));
+        h = mix(h ^ (botDirection == null ? 0 : botDirection.hashCode()));
+        return h;
+    }
+
+    /** splitmix64 */
+    private static long mix(long z) {
+        z += 0x9E37_79B9_7F4A_7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58_476D_1CE4_E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D0_49BB_1331_11EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,210 @@
+package com.clout.tron.engine;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Gera offline o livro de aberturas a partir da posição inicial fixa do tron.js
+ * (jogador em (8,15), bot em (21,15) indo para LEFT, tabuleiro 30x30).
+ *
+ * Percorre todos os caminhos possíveis do jogador nos primeiros turnos, reproduz
+ * o ciclo do cliente (pedido à IA a cada IA_DECISION_INTERVAL_TURNS, com o bot
+ * ainda dando o passo do próprio turno na direção antiga) e resolve cada estado
+ * com minimax alfa-beta avaliado por território (Voronoi).
+ *
+ * Uso (a partir das classes compiladas, sem Spring):
+ *   java -cp target/classes com.clout.tron.engine.GeradorLivroAberturas \
+ *        src/main/resources/abertura/livro-aberturas.bin [turnos] [profundidade]
+ */
+public final class GeradorLivroAberturas {
+
+    private static final int N = 30;
+    private static final int PLAYER_X = 8;
+    private static final int PLAYER_Y = N / 2;
+    private static final int BOT_X = N - 9;
+    private static final int BOT_Y = N / 2;
+    private static final int BOT_DIR_INICIAL = 2; // LEFT
+    private static final int IA_DECISION_INTERVAL_TURNS = 2;
+
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0};
+    private static final String[] NOMES = {"UP", "DOWN", "LEFT", "RIGHT"};
+    private static final int[] OPOSTA = {1, 0, 3, 2};
+
+    private static final int VITORIA = 1_000_000;
+
+    private final int turnos;
+    private final int profundidade;
+    private final boolean[] livre = new boolean[N * N];
+    private final Territorio territorio = new Territorio(N);
+    private final Map<Long, Byte> livro = new TreeMap<>();
+
+    private GeradorLivroAberturas(int turnos, int profundidade) {
+        this.turnos = turnos;
+        this.profundidade = profundidade;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Uso: GeradorLivroAberturas <arquivo-saida> [turnos=8] [profundidade=4]");
+            System.exit(1);
+        }
+        int turnos = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int profundidade = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+        long inicio = System.nanoTime();
+        GeradorLivroAberturas gerador = new GeradorLivroAberturas(turnos, profundidade);
+        gerador.gerar();
+
+        long[] chaves = new long[gerador.livro.size()];
+        byte[] direcoes = new byte[gerador.livro.size()];
+        int i = 0;
+        for (Map.Entry<Long, Byte> e : gerador.livro.entrySet()) {
+            chaves[i] = e.getKey();
+            direcoes[i] = e.getValue();
+            i++;
+        }
+
+        try (OutputStream out = new FileOutputStream(args[0])) {
+            LivroAberturas.gravar(out, N, turnos, chaves, direcoes);
+        }
+        System.out.printf("Livro de aberturas: %d estados (turnos=%d, profundidade=%d) em %.1fs → %s%n",
+                chaves.length, turnos, profundidade, (System.nanoTime() - inicio) / 1e9, args[0]);
+    }
+
+    // ========================= ENUMERAÇÃO DAS ABERTURAS =========================
+
+    private void gerar() {
+        java.util.Arrays.fill(livre, true);
+        int player = PLAYER_Y * N + PLAYER_X;
+        int bot = BOT_Y * N + BOT_X;
+        livre[player] = false;
+        livre[bot] = false;
+        turno(1, player, -1, bot, BOT_DIR_INICIAL);
+    }
+
+    /** Reproduz um tick do gameTick() do tron.js para cada movimento possível do jogador. */
+    private void turno(int t, int player, int playerDir, int bot, int botDir) {
+        for (int pd = 0; pd < 4; pd++) {
+            if (playerDir >= 0 && pd == OPOSTA[playerDir]) continue;
+            int np = mover(player, pd);
+            if (np < 0 || !livre[np]) continue; // jogador bateu: fim de jogo
+            livre[np] = false;
+
+            int resposta = -1;
+            if (t % IA_DECISION_INTERVAL_TURNS == 0) {
+                long fp = FingerprintEstado.calcular(livre, N, np % N, np / N, bot % N, bot / N, NOMES[botDir]);
+                Byte gravada = livro.get(fp);
+                if (gravada == null) {
+                    gravada = (byte) decidir(np, pd, bot, botDir);
+                    livro.put(fp, gravada);
+                }
+                resposta = gravada;
+            }
+
+            // o bot ainda anda na direção antiga neste tick
+            int nb = mover(bot, botDir);
+            if (nb >= 0 && livre[nb]) {
+                livre[nb] = false;
+                int proximaDir = resposta >= 0 && resposta != OPOSTA[botDir] ? resposta : botDir;
+                if (t < turnos) {
+                    turno(t + 1, np, pd, nb, proximaDir);
+                }
+                livre[nb] = true;
+            }
+
+            livre[np] = true;
+        }
+    }
+
+    // ========================= BUSCA (MINIMAX ALFA-BETA) =========================
+
+    /**
+     * Escolhe a resposta para o estado logo após o movimento do jogador no tick t.
+     * Sequência simulada: passo pendente do bot (direção antiga), depois dois ticks
+     * com o bot seguindo a resposta e, dali em diante, bot livre a cada tick.
+     */
+    private int decidir(int player, int playerDir, int bot, int botDir) {
+        int nb = mover(bot, botDir);
+        if (nb < 0 || !livre[nb]) return botDir; // perdido de qualquer jeito
+
+        livre[nb] = false;
+        int melhorDir = botDir;
+        int melhorValor = Integer.MIN_VALUE;
+        for (int d = 0; d < 4; d++) {
+            if (d == OPOSTA[botDir]) continue;
+            int v = minimax(1, player, playerDir, nb, d, d, Integer.MIN_VALUE + 1, Integer.MAX_VALUE);
+            if (v > melhorValor) {
+                melhorValor = v;
+                melhorDir = d;
+            }
+        }
+        livre[nb] = true;
+        return melhorDir;
+    }
+
+    /**
+     * Um tick: jogador minimiza, depois o bot (forçado na resposta nos dois
+     * primeiros ticks, livre depois) maximiza.
+     */
+    private int minimax(int tick, int player, int playerDir, int bot, int botDir, int resposta,
+                        int alfa, int beta) {
+        if (tick > profundidade) {
+            return territorio.saldo(livre, bot, player);
+        }
+
+        int melhorJogador = Integer.MAX_VALUE;
+        boolean jogadorTemSaida = false;
+
+        for (int pd = 0; pd < 4; pd++) {
+            if (pd == OPOSTA[playerDir]) continue;
+            int np = mover(player, pd);
+            if (np < 0 || !livre[np]) continue;
+            jogadorTemSaida = true;
+            livre[np] = false;
+
+            int valor;
+            if (tick <= IA_DECISION_INTERVAL_TURNS) {
+                int nb = mover(bot, resposta);
+                if (nb < 0 || !livre[nb] || resposta == OPOSTA[botDir]) {
+                    valor = -VITORIA + tick;
+                } else {
+                    livre[nb] = false;
+                    valor = minimax(tick + 1, np, pd, nb, resposta, resposta, alfa, Math.min(beta, melhorJogador));
+                    livre[nb] = true;
+                }
+            } else {
+                valor = -VITORIA + tick;
+                int a = alfa;
+                for (int bd = 0; bd < 4; bd++) {
+                    if (bd == OPOSTA[botDir]) continue;
+                    int nb = mover(bot, bd);
+                    if (nb < 0 || !livre[nb]) continue;
+                    livre[nb] = false;
+                    int v = minimax(tick + 1, np, pd, nb, bd, resposta, a, Math.min(beta, melhorJogador));
+                    livre[nb] = true;
+                    if (v > valor) valor = v;
+                    if (valor > a) a = valor;
+                    if (a >= Math.min(beta, melhorJogador)) break;
+                }
+            }
+
+            livre[np] = true;
+            if (valor < melhorJogador) melhorJogador = valor;
+            if (melhorJogador <= alfa) break;
+        }
+
+        // jogador sem saída: bot vence (quanto antes, melhor)
+        return jogadorTemSaida ? melhorJogador : VITORIA - tick;
+    }
+
+    private static int mover(int pos, int dir) {
+        int nx = pos % N + DX[dir];
+        int ny = pos / N + DY[dir];
+        if (nx < 0 || nx >= N || ny < 0 || ny >= N) return -1;
+        return ny * N + nx;
+    }
+}
@@ -0,0 +1,104 @@
+package com.clout.tron.engine;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Livro de aberturas imutável: fingerprint do estado → direção do bot.
+ *
+ * Formato binário (big-endian):
+ *   "TRNB" | versão (int) | lado do tabuleiro (int) | último turno (int) |
+ *   quantidade (int) | quantidade × [fingerprint (long), direção (byte)]
+ * com as fingerprints em ordem crescente. Em memória fica como long[] + byte[]
+ * e a consulta é uma busca binária.
+ *
+ * Lado e último turno dizem para quais estados o livro foi gerado: fora deles
+ * {@link #cobre} responde false sem montar nem calcular fingerprint de nada.
+ */
+public final class LivroAberturas {
+
+    public static final int MAGIC = 0x54524E42; // "TRNB"
+    public static final int VERSAO = 2;
+
+    private static final String[] NOMES = {"UP", "DOWN", "LEFT", "RIGHT"};
+
+    private final int lado;
+    private final int turnoMaximo;
+    private final long[] chaves;
+    private final byte[] direcoes;
+
+    private LivroAberturas(int lado, int turnoMaximo, long[] chaves, byte[] direcoes) {
+        this.lado = lado;
+        this.turnoMaximo = turnoMaximo;
+        this.chaves = chaves;
+        this.direcoes = direcoes;
+    }
+
+    public static LivroAberturas vazio() {
+        return new LivroAberturas(0, 0, new long[0], new byte[0]);
+    }
+
+    /** Se o estado pode estar no livro: mesmo tabuleiro e dentro dos turnos gerados. */
+    public boolean cobre(int ladoTabuleiro, int turno) {
+        return chaves.length > 0 && ladoTabuleiro == lado && turno >= 1 && turno <= turnoMaximo;
+    }
+
+    /** Retorna a direção gravada para o estado, ou null se ele não estiver no livro. */
+    public String consultar(long fingerprint) {
+        int i = Arrays.binarySearch(chaves, fingerprint);
+        return i >= 0 ? NOMES[direcoes[i]] : null;
+    }
+
+    public int tamanho() {
+        return chaves.length;
+    }
+
+    // ========================= SERIALIZAÇÃO =========================
+
+    public static LivroAberturas ler(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new java.io.BufferedInputStream(in));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Arquivo não é um livro de aberturas");
+        }
+        int versao = data.readInt();
+        if (versao != VERSAO) {
+            throw new IOException("Versão de livro de aberturas não suportada: " + versao);
+        }
+        int lado = data.readInt();
+        int turnoMaximo = data.readInt();
+        int qtd = data.readInt();
+        long[] chaves = new long[qtd];
+        byte[] direcoes = new byte[qtd];
+        for (int i = 0; i < qtd; i++) {
+            chaves[i] = data.readLong();
+            direcoes[i] = data.readByte();
+            if (direcoes[i] < 0 || direcoes[i] >= NOMES.length) {
+                throw new IOException("Direção inválida no livro de aberturas: " + direcoes[i]);
+            }
+            if (i > 0 && chaves[i] <= chaves[i - 1]) {
+                throw new IOException("Livro de aberturas fora de ordem na posição " + i);
+            }
+        }
+        return new LivroAberturas(lado, turnoMaximo, chaves, direcoes);
+    }
+
+    /** Grava as entradas (já ordenadas por fingerprint, sem repetição). */
+    static void gravar(OutputStream out, int lado, int turnoMaximo, long[] chaves, byte[] direcoes)
+            throws IOException {
+        DataOutputStream data = new DataOutputStream(new java.io.BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSAO);
+        data.writeInt(lado);
+        data.writeInt(turnoMaximo);
+        data.writeInt(chaves.length);
+        for (int i = 0; i < chaves.length; i++) {
+            data.writeLong(chaves[i]);
+            data.writeByte(direcoes[i]);
+        }
+        data.flush();
+    }
+}
@@ -0,0 +1,96 @@
+package com.clout.tron.engine;
+
+/**
+ * Score local das direções do bot, sem histórico: sobrevivência simulada e espaço,
+ * que é o território com mais de um oponente ou com a conectividade incremental da
+ * partida, e a área livre nos demais casos.
+ *
+ * As buscas do score são limitadas (passos, células ou raio), então o custo por
+ * direção não cresce com a área do tabuleiro. O termo de área satura em limiteArea:
+ * regiões maiores que isso valem o mesmo espaço (com o padrão 1024 o 30x30 nunca
+ * satura). Usa o {@link TabuleiroTrabalho} já carregado pelo chamador.
+ */
+public class PontuacaoLocal {
+
+    public static final double PESO_SOBREVIVENCIA = 1000.0;
+    public static final double PESO_AREA = 5.0;
+
+    private static final int PASSOS_SIMULACAO = 20;
+
+    private final int limiteArea;
+    private final int raioTerritorio;
+
+    public PontuacaoLocal(int limiteArea, int raioTerritorio) {
+        this.limiteArea = limiteArea;
+        this.raioTerritorio = raioTerritorio;
+    }
+
+    /**
+     * Preenche saida[dir] com o score de cada direção imediatamente segura e NaN nas
+     * demais (ré, parede ou rastro). dirAtual < 0 quando o bot ainda não tem direção.
+     *
+     * Com 2 motos o termo de espaço é a área alcançável (comportamento original); com
+     * oponentes extras vira o território de cada direção, porque a mesma área livre
+     * é disputada por várias motos.
+     */
+    public void pontuar(TabuleiroTrabalho t, int bx, int by, int dirAtual,
+                        int[] cabecasOponentes, int qtdOponentes, double[] saida) {
+        pontuar(t, bx, by, dirAtual, cabecasOponentes, qtdOponentes, null, null, saida);
+    }
+
+    /**
+     * Igual a {@link #pontuar(TabuleiroTrabalho, int, int, int, int[], int, double[])}, mas com
+     * o espaço de cada direção já conhecido pela {@link ConectividadeIncremental} da partida.
+     * Só vale para 2 motos. Com territorioPorDirecao (células que o bot alcança antes do
+     * jogador saindo por aquela direção) o termo de espaço passa a ser o território, como já
+     * é com vários oponentes: área que o jogador alcança primeiro não é do bot. Sem ele vale
+     * areaPorDirecao (tamanho da região) e, sem os dois, o flood fill.
+     */
+    public void pontuar(TabuleiroTrabalho t, int bx, int by, int dirAtual,
+                        int[] cabecasOponentes, int qtdOponentes, int[] areaPorDirecao,
+                        int[] territorioPorDirecao, double[] saida) {
+        boolean variosOponentes = qtdOponentes > 1;
+
+        for (int dir = 0; dir < 4; dir++) {
+            saida[dir] = Double.NaN;
+            if (dirAtual >= 0 && TabuleiroTrabalho.opostas(dir, dirAtual)) continue;
+
+            int nx = bx + TabuleiroTrabalho.dx(dir);
+            int ny = by + TabuleiroTrabalho.dy(dir);
+            if (!t.livre(nx, ny)) continue;
+
+            int espaco;
+            if (variosOponentes) {
+                espaco = t.territorio(nx, ny, cabecasOponentes, qtdOponentes, raioTerritorio);
+            } else if (territorioPorDirecao != null) {
+                espaco = Math.min(territorioPorDirecao[dir], limiteArea);
+            } else if (areaPorDirecao != null) {
+                espaco = Math.min(areaPorDirecao[dir], limiteArea);
+            } else {
+                espaco = t.area(nx, ny, limiteArea);
+            }
+            int sobrevivencia = t.sobrevivencia(nx, ny, dir, PASSOS_SIMULACAO);
+
+            saida[dir] = sobrevivencia * PESO_SOBREVIVENCIA + espaco * PESO_AREA;
+        }
+    }
+
+    /**
+     * true enquanto o bot ainda disputa espaço com algum oponente. Não usa o limite de área:
+     * separação em região grande também é fim de jogo.
+     */
+    public boolean disputaEspaco(TabuleiroTrabalho t, int bx, int by, int[] cabecasOponentes, int qtdOponentes) {
+        return t.alcancaAlguma(bx, by, cabecasOponentes, qtdOponentes);
+    }
+
+    /**
+     * Lookahead curto: a direção é segura se o primeiro passo é livre e o bot aguenta
+     * pelo menos metade dos "profundidade" passos seguintes.
+     */
+    public static boolean seguraProfunda(TabuleiroTrabalho t, int bx, int by, int dir, int profundidade) {
+        int nx = bx + TabuleiroTrabalho.dx(dir);
+        int ny = by + TabuleiroTrabalho.dy(dir);
+        if (!t.livre(nx, ny)) return false;
+        return t.sobrevivencia(nx, ny, dir, profundidade - 1) >= Math.max(1, profundidade / 2);
+    }
+}
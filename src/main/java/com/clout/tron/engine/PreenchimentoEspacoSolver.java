@@ -0,0 +1,531 @@
+package com.clout.tron.engine;
+
+import java.util.Arrays;
+
+/**
+ * Solver de fim de jogo: quando os rastros dividem o tabuleiro e as motos ficam
+ * em regiões separadas, não existe mais interação — vence quem preencher o
+ * próprio espaço por mais tempo.
+ *
+ * Estratégia:
+ * - estimativa por câmaras: pontos de articulação dividem a região em câmaras,
+ *   e só dá para aproveitar um ramo depois de passar por um gargalo;
+ * - busca de caminho mais longo (DFS com poda por limite superior de paridade),
+ *   limitada por tempo; quando o tempo acaba, usa a estimativa por câmaras.
+ *
+ * Lê as ocupadas do {@link TabuleiroTrabalho} já carregado e só trabalha dentro da
+ * região do bot. Busca e estimativa são iterativas (sem recursão proporcional ao
+ * caminho) e usam buffers por thread marcados por geração, como o TabuleiroTrabalho:
+ * nada é alocado por nó. O relógio é consultado pelo trabalho feito (células visitadas
+ * pelas buscas internas), não por número de nós, porque em regiões grandes um único
+ * nó já custa uma BFS inteira.
+ */
+public class PreenchimentoEspacoSolver {
+
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0};
+    private static final String[] NOMES = {"UP", "DOWN", "LEFT", "RIGHT"};
+
+    // células visitadas entre duas leituras do relógio
+    private static final int TRABALHO_POR_CHECAGEM = 1 << 14;
+
+    private static final ThreadLocal<Rascunho> POR_THREAD = ThreadLocal.withInitial(Rascunho::new);
+
+    private final long tempoLimiteNanos;
+
+    public PreenchimentoEspacoSolver(long tempoLimiteMs) {
+        this.tempoLimiteNanos = Math.max(1, tempoLimiteMs) * 1_000_000L;
+    }
+
+    // ========================= ESCOLHA DO MOVIMENTO =========================
+
+    /**
+     * Escolhe a direção que maximiza o caminho dentro da própria região.
+     * Retorna null se não houver nenhum movimento possível. dirAtual < 0 quando o bot ainda
+     * não tem direção.
+     */
+    public String melhorDirecao(TabuleiroTrabalho t, int botX, int botY, int dirAtual) {
+        int n = t.lado();
+        if (botX < 0 || botY < 0 || botX >= n || botY >= n) return null;
+
+        Rascunho r = POR_THREAD.get();
+        r.carregarRegiao(t, botY * n + botX);
+
+        // candidatos da raiz, ordenados pela estimativa por câmaras
+        int[] dirs = new int[4];
+        int[] celulas = new int[4];
+        int[] estimativas = new int[4];
+        int qtd = 0;
+        for (int d = 0; d < 4; d++) {
+            if (dirAtual >= 0 && TabuleiroTrabalho.opostas(d, dirAtual)) continue;
+            int nx = botX + DX[d];
+            int ny = botY + DY[d];
+            if (nx < 0 || ny < 0 || nx >= n || ny >= n) continue;
+            int idx = ny * n + nx;
+            if (!r.livre(idx)) continue;
+
+            r.ocupar(idx);
+            int estimativa = r.estimativaCamaras(idx);
+            r.liberar(idx);
+
+            // insere mantendo a ordem decrescente de estimativa
+            int j = qtd++;
+            while (j > 0 && estimativas[j - 1] < estimativa) {
+                dirs[j] = dirs[j - 1];
+                celulas[j] = celulas[j - 1];
+                estimativas[j] = estimativas[j - 1];
+                j--;
+            }
+            dirs[j] = d;
+            celulas[j] = idx;
+            estimativas[j] = estimativa;
+        }
+
+        if (qtd == 0) return null;
+        if (qtd == 1) return NOMES[dirs[0]];
+
+        long inicio = System.nanoTime();
+        int melhorDir = dirs[0];
+        int melhorValor = -1;
+
+        for (int i = 0; i < qtd; i++) {
+            // divide o tempo restante igualmente entre os candidatos que faltam
+            long restante = tempoLimiteNanos - (System.nanoTime() - inicio);
+            long prazo = System.nanoTime() + Math.max(0, restante / (qtd - i));
+
+            r.ocupar(celulas[i]);
+            int valor = r.caminhoMaisLongo(celulas[i], prazo);
+            r.liberar(celulas[i]);
+
+            if (valor > melhorValor) {
+                melhorValor = valor;
+                melhorDir = dirs[i];
+            }
+        }
+
+        return NOMES[melhorDir];
+    }
+
+    // ========================= RASCUNHO POR THREAD =========================
+
+    /**
+     * Região do bot e buffers das buscas. "Livre" é livreEm[c] == geracaoLivre: carregar
+     * a região custa O(região) e ocupar/liberar na busca é só trocar a marca.
+     */
+    private static final class Rascunho {
+        private int n;
+        private int capacidade;
+
+        private int[] livreEm = new int[0];
+        private int geracaoLivre;
+
+        // limite superior (BFS) e fila da rotulação de câmaras
+        private int[] visitadoEm = new int[0];
+        private int geracaoVisita;
+        private int[] fila = new int[0];
+
+        // pilha explícita da DFS de caminho mais longo, indexada pela profundidade
+        private int[] pilhaCelula = new int[0];
+        private int[] pilhaLimite = new int[0];
+        private int[] pilhaQtd = new int[0];
+        private int[] pilhaProximo = new int[0];
+        private int[] pilhaFilhos = new int[0]; // 4 por nível
+        private final int[] grau = new int[4];
+
+        // estimativa por câmaras
+        private int[] descobertoEm = new int[0];
+        private int[] articulacaoEm = new int[0];
+        private int geracaoCamara;
+        private int[] disc = new int[0];
+        private int[] low = new int[0];      // depois do Tarjan: melhor ramo de cada câmara
+        private int[] pai = new int[0];      // depois do Tarjan: câmaras de partida
+        private int[] proximaDir = new int[0]; // depois do Tarjan: cursor das arestas
+        private int[] pilha = new int[0];
+        private int[] ordem = new int[0];
+        private int[] no = new int[0];
+        private int[] mesmaCor = new int[0];
+        private int[] outraCor = new int[0];
+        private int[] inicioArestas = new int[0];
+        private int[] arestas = new int[0];
+        private int[] noVisitadoEm = new int[0];
+
+        // busca em andamento
+        private long prazo;
+        private long trabalho;
+        private long proximaChecagem;
+        private boolean esgotado;
+        private int melhor;
+
+        void carregarRegiao(TabuleiroTrabalho t, int bot) {
+            n = t.lado();
+            garantirCapacidade(n * n);
+            geracaoLivre = proxima(geracaoLivre, livreEm);
+
+            // BFS a partir da cabeça do bot (ocupada) pelas células livres do tabuleiro
+            geracaoVisita = proxima(geracaoVisita, visitadoEm);
+            int ini = 0, fim = 0;
+            visitadoEm[bot] = geracaoVisita;
+            fila[fim++] = bot;
+            while (ini < fim) {
+                int atual = fila[ini++];
+                int x = atual % n, y = atual / n;
+                for (int d = 0; d < 4; d++) {
+                    int nx = x + DX[d], ny = y + DY[d];
+                    if (!t.livre(nx, ny)) continue;
+                    int idx = ny * n + nx;
+                    if (visitadoEm[idx] == geracaoVisita) continue;
+                    visitadoEm[idx] = geracaoVisita;
+                    livreEm[idx] = geracaoLivre;
+                    fila[fim++] = idx;
+                }
+            }
+        }
+
+        private void garantirCapacidade(int celulas) {
+            if (celulas <= capacidade) return;
+            int cap = Math.max(celulas, capacidade * 2);
+            capacidade = cap;
+            livreEm = new int[cap];
+            visitadoEm = new int[cap];
+            fila = new int[cap];
+            pilhaCelula = new int[cap + 1];
+            pilhaLimite = new int[cap + 1];
+            pilhaQtd = new int[cap + 1];
+            pilhaProximo = new int[cap + 1];
+            pilhaFilhos = new int[4 * (cap + 1)];
+            descobertoEm = new int[cap];
+            articulacaoEm = new int[cap];
+            disc = new int[cap];
+            low = new int[cap];
+            pai = new int[cap];
+            proximaDir = new int[cap];
+            pilha = new int[cap];
+            ordem = new int[cap];
+            no = new int[cap];
+            mesmaCor = new int[cap];
+            outraCor = new int[cap];
+            inicioArestas = new int[cap + 1];
+            arestas = new int[4 * cap];
+            noVisitadoEm = new int[cap];
+            geracaoLivre = geracaoVisita = geracaoCamara = 0;
+        }
+
+        boolean livre(int c) {
+            return livreEm[c] == geracaoLivre;
+        }
+
+        void ocupar(int c) {
+            livreEm[c] = 0;
+        }
+
+        void liberar(int c) {
+            livreEm[c] = geracaoLivre;
+        }
+
+        private int vizinho(int c, int d) {
+            int x = c % n + DX[d], y = c / n + DY[d];
+            if (x < 0 || y < 0 || x >= n || y >= n) return -1;
+            return y * n + x;
+        }
+
+        // ========================= CAMINHO MAIS LONGO =========================
+
+        /**
+         * DFS de caminho mais longo a partir de raiz (já ocupada) com branch-and-bound,
+         * em pilha explícita. Ordena os filhos pela regra de Warnsdorff (menos saídas
+         * primeiro), que tende a colar nas paredes e encontrar cedo um caminho longo.
+         * Quando o prazo acaba, completa o ramo atual com a estimativa por câmaras.
+         */
+        int caminhoMaisLongo(int raiz, long prazo) {
+            this.prazo = prazo;
+            trabalho = 0;
+            proximaChecagem = 0;
+            esgotado = false;
+            melhor = 0;
+
+            if (!empilhar(raiz, 0)) return melhor;
+            int topo = 0;
+            while (topo >= 0) {
+                if (esgotado) break;
+                int base = topo * 4;
+                if (pilhaProximo[topo] < pilhaQtd[topo] && melhor < topo + pilhaLimite[topo]) {
+                    int filho = pilhaFilhos[base + pilhaProximo[topo]++];
+                    ocupar(filho);
+                    if (empilhar(filho, topo + 1)) {
+                        topo++;
+                    } else {
+                        liberar(filho);
+                    }
+                } else {
+                    // esgotou os filhos ou já atingiu o limite superior (ótimo neste ramo)
+                    if (topo > 0) liberar(pilhaCelula[topo]);
+                    topo--;
+                }
+            }
+            // prazo estourado: devolve as células do caminho em andamento
+            for (int k = topo; k > 0; k--) liberar(pilhaCelula[k]);
+            return melhor;
+        }
+
+        /**
+         * Avalia pos (já ocupada) na profundidade dada. Retorna true se abriu um nível
+         * novo na pilha; false se o nó foi resolvido ali (folha, poda ou prazo).
+         */
+        private boolean empilhar(int pos, int profundidade) {
+            if (tempoEsgotado()) {
+                melhor = Math.max(melhor, profundidade + estimativaCamaras(pos));
+                return false;
+            }
+
+            int limite = limiteSuperior(pos);
+            if (limite == 0) {
+                melhor = Math.max(melhor, profundidade);
+                return false;
+            }
+            if (profundidade + limite <= melhor) return false;
+
+            int base = profundidade * 4;
+            int qtd = 0;
+            for (int d = 0; d < 4; d++) {
+                int v = vizinho(pos, d);
+                if (v < 0 || !livre(v)) continue;
+                int g = saidasLivres(v);
+                // insertion sort por grau crescente (no máximo 4 elementos)
+                int j = qtd++;
+                while (j > 0 && grau[j - 1] > g) {
+                    grau[j] = grau[j - 1];
+                    pilhaFilhos[base + j] = pilhaFilhos[base + j - 1];
+                    j--;
+                }
+                grau[j] = g;
+                pilhaFilhos[base + j] = v;
+            }
+
+            pilhaCelula[profundidade] = pos;
+            pilhaLimite[profundidade] = limite;
+            pilhaQtd[profundidade] = qtd;
+            pilhaProximo[profundidade] = 0;
+            return true;
+        }
+
+        private boolean tempoEsgotado() {
+            if (!esgotado && trabalho >= proximaChecagem) {
+                proximaChecagem = trabalho + TRABALHO_POR_CHECAGEM;
+                esgotado = System.nanoTime() > prazo;
+            }
+            return esgotado;
+        }
+
+        /**
+         * Limite superior do caminho a partir de pos: células alcançáveis com
+         * correção de paridade (no grid o caminho alterna as cores do xadrez).
+         */
+        private int limiteSuperior(int pos) {
+            int corPos = ((pos % n) + (pos / n)) & 1;
+            int mesma = 0;
+            int outra = 0;
+
+            geracaoVisita = proxima(geracaoVisita, visitadoEm);
+            int ini = 0, fim = 0;
+            visitadoEm[pos] = geracaoVisita;
+            fila[fim++] = pos;
+
+            while (ini < fim) {
+                int atual = fila[ini++];
+                for (int d = 0; d < 4; d++) {
+                    int v = vizinho(atual, d);
+                    if (v < 0 || visitadoEm[v] == geracaoVisita || !livre(v)) continue;
+                    visitadoEm[v] = geracaoVisita;
+                    if ((((v % n) + (v / n)) & 1) == corPos) mesma++;
+                    else outra++;
+                    fila[fim++] = v;
+                }
+            }
+            trabalho += fim;
+            return limiteParidade(outra, mesma);
+        }
+
+        private int saidasLivres(int pos) {
+            int cont = 0;
+            for (int d = 0; d < 4; d++) {
+                int v = vizinho(pos, d);
+                if (v >= 0 && livre(v)) cont++;
+            }
+            return cont;
+        }
+
+        // ========================= ESTIMATIVA POR CÂMARAS =========================
+
+        /**
+         * Estima quantas células ainda dá para ocupar a partir de pos:
+         * 1) encontra os pontos de articulação da região alcançável (Tarjan iterativo);
+         * 2) remove as articulações e rotula as câmaras restantes;
+         * 3) percorre a árvore câmara/articulação somando só o melhor ramo em cada gargalo.
+         */
+        int estimativaCamaras(int pos) {
+            geracaoCamara = proxima(geracaoCamara, descobertoEm);
+            int g = geracaoCamara;
+
+            // ---- 1) Tarjan iterativo com raiz em pos ----
+            int tempo = 1;
+            int filhosRaiz = 0;
+            int descobertas = 0;
+            int topo = 0;
+            descobertoEm[pos] = g;
+            disc[pos] = low[pos] = tempo++;
+            pai[pos] = -1;
+            proximaDir[pos] = 0;
+            ordem[descobertas++] = pos;
+            pilha[topo++] = pos;
+
+            while (topo > 0) {
+                int u = pilha[topo - 1];
+                if (proximaDir[u] < 4) {
+                    int v = vizinho(u, proximaDir[u]++);
+                    if (v < 0 || !livre(v)) continue;
+                    if (descobertoEm[v] != g) {
+                        descobertoEm[v] = g;
+                        pai[v] = u;
+                        disc[v] = low[v] = tempo++;
+                        proximaDir[v] = 0;
+                        ordem[descobertas++] = v;
+                        if (u == pos) filhosRaiz++;
+                        pilha[topo++] = v;
+                    } else if (v != pai[u]) {
+                        low[u] = Math.min(low[u], disc[v]);
+                    }
+                } else {
+                    topo--;
+                    int p = pai[u];
+                    if (p >= 0) {
+                        low[p] = Math.min(low[p], low[u]);
+                        if (p != pos && low[u] >= disc[p]) articulacaoEm[p] = g;
+                    }
+                }
+            }
+            trabalho += descobertas;
+            if (filhosRaiz == 0) return 0;
+
+            // ---- 2) câmaras = componentes sem as articulações; cada articulação vira um nó ----
+            for (int i = 0; i < descobertas; i++) no[ordem[i]] = -1;
+            int corPos = ((pos % n) + (pos / n)) & 1;
+            int qtdNos = 0;
+
+            for (int i = 1; i < descobertas; i++) { // ordem[0] é pos
+                int c = ordem[i];
+                if (no[c] >= 0) continue;
+                int id = qtdNos++;
+                mesmaCor[id] = 0;
+                outraCor[id] = 0;
+                no[c] = id;
+
+                if (articulacaoEm[c] == g) {
+                    contarCor(id, c, corPos);
+                    continue;
+                }
+
+                int ini = 0, fim = 0;
+                fila[fim++] = c;
+                while (ini < fim) {
+                    int u = fila[ini++];
+                    contarCor(id, u, corPos);
+                    for (int d = 0; d < 4; d++) {
+                        int v = vizinho(u, d);
+                        if (v < 0 || descobertoEm[v] != g || v == pos || no[v] >= 0 || articulacaoEm[v] == g) continue;
+                        no[v] = id;
+                        fila[fim++] = v;
+                    }
+                }
+            }
+
+            // arestas entre nós (com repetições; a visita marcada evita contar duas vezes)
+            Arrays.fill(inicioArestas, 0, qtdNos + 1, 0);
+            int qtdInicio = 0;
+            for (int pass = 0; pass < 2; pass++) {
+                for (int i = 0; i < descobertas; i++) {
+                    int u = ordem[i];
+                    for (int d = 0; d < 4; d++) {
+                        int v = vizinho(u, d);
+                        if (v < 0 || descobertoEm[v] != g) continue;
+                        if (u == pos) {
+                            if (pass == 0) pai[qtdInicio++] = no[v];
+                        } else if (v != pos && no[u] != no[v]) {
+                            if (pass == 0) inicioArestas[no[u] + 1]++;
+                            else arestas[proximaDir[no[u]]++] = no[v];
+                        }
+                    }
+                }
+                if (pass == 0) {
+                    for (int id = 0; id < qtdNos; id++) inicioArestas[id + 1] += inicioArestas[id];
+                    System.arraycopy(inicioArestas, 0, proximaDir, 0, qtdNos);
+                }
+            }
+
+            // ---- 3) percorre a árvore escolhendo o melhor ramo ----
+            for (int i = 0; i < qtdNos; i++) noVisitadoEm[i] = 0;
+            for (int i = 0; i < qtdInicio; i++) noVisitadoEm[pai[i]] = g;
+            int melhorEstimativa = 0;
+            for (int i = 0; i < qtdInicio; i++) {
+                melhorEstimativa = Math.max(melhorEstimativa, valorArvore(pai[i], g));
+            }
+            return melhorEstimativa;
+        }
+
+        private void contarCor(int id, int c, int corPos) {
+            if ((((c % n) + (c / n)) & 1) == corPos) mesmaCor[id]++;
+            else outraCor[id]++;
+        }
+
+        /**
+         * Valor do nó = capacidade da câmara + melhor ramo ainda não visitado, em pilha
+         * explícita (corredores longos viram cadeias de articulações).
+         */
+        private int valorArvore(int raiz, int g) {
+            int topo = 0;
+            pilha[topo++] = raiz;
+            proximaDir[raiz] = inicioArestas[raiz];
+            low[raiz] = 0;
+            int valor = 0;
+
+            while (topo > 0) {
+                int u = pilha[topo - 1];
+                if (proximaDir[u] < inicioArestas[u + 1]) {
+                    int v = arestas[proximaDir[u]++];
+                    if (noVisitadoEm[v] == g) continue;
+                    noVisitadoEm[v] = g;
+                    proximaDir[v] = inicioArestas[v];
+                    low[v] = 0;
+                    pilha[topo++] = v;
+                } else {
+                    topo--;
+                    // paridade: dentro da câmara não dá para usar muito mais de uma cor que da outra
+                    int tamanho = mesmaCor[u] + outraCor[u];
+                    valor = Math.min(tamanho, 2 * Math.min(mesmaCor[u], outraCor[u]) + 1) + low[u];
+                    if (topo > 0) {
+                        int p = pilha[topo - 1];
+                        low[p] = Math.max(low[p], valor);
+                    }
+                }
+            }
+            return valor;
+        }
+    }
+
+    /**
+     * Um caminho que sai de uma célula de cor A visita B, A, B, ...
+     * Logo usa no máximo min(B, A + 1) células de B e min(A, B) células de A.
+     */
+    private static int limiteParidade(int outraCor, int mesmaCor) {
+        return 2 * Math.min(outraCor, mesmaCor) + (outraCor > mesmaCor ? 1 : 0);
+    }
+
+    // ========================= UTILITÁRIOS =========================
+
+    private static int proxima(int geracao, int[] marcas) {
+        if (geracao == Integer.MAX_VALUE) {
+            Arrays.fill(marcas, 0);
+            return 1;
+        }
+        return geracao + 1;
+    }
+}
@@ -0,0 +1,200 @@
+package com.clout.tron.engine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Rede de política/valor pequena (MLP) avaliada em CPU, só com float[].
+ *
+ * Entrada: janela JANELA x JANELA centrada na cabeça do bot (canal de bloqueio
+ * + canal da cabeça do jogador), direção atual do bot em one-hot e o vetor
+ * normalizado até o jogador. Saída: probabilidades de UP/DOWN/LEFT/RIGHT e um
+ * valor em [-1, 1] (expectativa de vitória do bot).
+ *
+ * Os pesos são imutáveis depois de carregados; os buffers intermediários são
+ * por thread, então a mesma instância atende partidas concorrentes.
+ *
+ * Formato binário (big-endian):
+ *   "TRNP" | versão | janela | oculta | W1[oculta][entrada] | b1 | W2[SAIDAS][oculta] | b2
+ */
+public final class RedePolitica {
+
+    public static final int MAGIC = 0x54524E50; // "TRNP"
+    public static final int VERSAO = 1;
+
+    /** 4 logits de direção + 1 valor */
+    public static final int SAIDAS = 5;
+
+    private static final String[] NOMES = {"UP", "DOWN", "LEFT", "RIGHT"};
+
+    private final int janela;
+    private final int entrada;
+    private final int oculta;
+    private final float[] w1;
+    private final float[] b1;
+    private final float[] w2;
+    private final float[] b2;
+
+    private final ThreadLocal<float[]> bufferEntrada;
+    private final ThreadLocal<float[]> bufferOculta;
+
+    RedePolitica(int janela, int oculta, float[] w1, float[] b1, float[] w2, float[] b2) {
+        this.janela = janela;
+        this.entrada = tamanhoEntrada(janela);
+        this.oculta = oculta;
+        this.w1 = w1;
+        this.b1 = b1;
+        this.w2 = w2;
+        this.b2 = b2;
+        this.bufferEntrada = ThreadLocal.withInitial(() -> new float[entrada]);
+        this.bufferOculta = ThreadLocal.withInitial(() -> new float[oculta]);
+    }
+
+    /** Rede indisponível (sem pesos): o tier é simplesmente pulado. */
+    public static RedePolitica vazia() {
+        return new RedePolitica(1, 0, new float[0], new float[0], new float[0], new float[0]);
+    }
+
+    public boolean disponivel() {
+        return oculta > 0;
+    }
+
+    public int getJanela() {
+        return janela;
+    }
+
+    public int getEntrada() {
+        return entrada;
+    }
+
+    public int getOculta() {
+        return oculta;
+    }
+
+    static int tamanhoEntrada(int janela) {
+        return 2 * janela * janela + 4 + 2;
+    }
+
+    // ========================= CODIFICAÇÃO DO ESTADO =========================
+
+    /**
+     * Escreve as features do estado em destino[offset .. offset + tamanhoEntrada(janela)).
+     * Fora do tabuleiro conta como bloqueado.
+     */
+    static void codificar(int janela, TabuleiroTrabalho t, int botX, int botY, int playerX, int playerY,
+                          String botDirection, float[] destino, int offset) {
+        int n = t.lado();
+        int raio = janela / 2;
+        int area = janela * janela;
+        int i = offset;
+
+        for (int dy = -raio; dy <= raio; dy++) {
+            for (int dx = -raio; dx <= raio; dx++) {
+                int x = botX + dx;
+                int y = botY + dy;
+                destino[i] = t.livre(x, y) ? 0f : 1f;
+                destino[i + area] = (x == playerX && y == playerY) ? 1f : 0f;
+                i++;
+            }
+        }
+        i = offset + 2 * area;
+
+        for (int d = 0; d < 4; d++) {
+            destino[i++] = NOMES[d].equals(botDirection) ? 1f : 0f;
+        }
+        destino[i++] = (playerX - botX) / (float) n;
+        destino[i] = (playerY - botY) / (float) n;
+    }
+
+    // ========================= INFERÊNCIA =========================
+
+    /**
+     * Avalia um estado. saida recebe 4 probabilidades (UP, DOWN, LEFT, RIGHT)
+     * seguidas do valor.
+     */
+    public void avaliar(TabuleiroTrabalho t, int botX, int botY, int playerX, int playerY,
+                        String botDirection, float[] saida) {
+        float[] x = bufferEntrada.get();
+        float[] h = bufferOculta.get();
+        codificar(janela, t, botX, botY, playerX, playerY, botDirection, x, 0);
+
+        for (int j = 0; j < oculta; j++) {
+            int linha = j * entrada;
+            float soma = b1[j];
+            for (int k = 0; k < entrada; k++) {
+                soma += w1[linha + k] * x[k];
+            }
+            h[j] = soma > 0f ? soma : 0f;
+        }
+
+        for (int o = 0; o < SAIDAS; o++) {
+            int linha = o * oculta;
+            float soma = b2[o];
+            for (int j = 0; j < oculta; j++) {
+                soma += w2[linha + j] * h[j];
+            }
+            saida[o] = soma;
+        }
+        softmaxEValor(saida, 0);
+    }
+
+    static void softmaxEValor(float[] z, int base) {
+        float max = z[base];
+        for (int d = 1; d < 4; d++) max = Math.max(max, z[base + d]);
+        float soma = 0f;
+        for (int d = 0; d < 4; d++) {
+            z[base + d] = (float) Math.exp(z[base + d] - max);
+            soma += z[base + d];
+        }
+        for (int d = 0; d < 4; d++) z[base + d] /= soma;
+        z[base + 4] = (float) Math.tanh(z[base + 4]);
+    }
+
+    // ========================= SERIALIZAÇÃO =========================
+
+    public static RedePolitica ler(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Arquivo não é uma rede de política");
+        }
+        int versao = data.readInt();
+        if (versao != VERSAO) {
+            throw new IOException("Versão de rede de política não suportada: " + versao);
+        }
+        int janela = data.readInt();
+        int oculta = data.readInt();
+        if (janela <= 0 || janela % 2 == 0 || oculta <= 0) {
+            throw new IOException("Dimensões inválidas na rede de política: janela=" + janela + ", oculta=" + oculta);
+        }
+        int entrada = tamanhoEntrada(janela);
+        float[] w1 = lerFloats(data, oculta * entrada);
+        float[] b1 = lerFloats(data, oculta);
+        float[] w2 = lerFloats(data, SAIDAS * oculta);
+        float[] b2 = lerFloats(data, SAIDAS);
+        return new RedePolitica(janela, oculta, w1, b1, w2, b2);
+    }
+
+    static void gravar(OutputStream out, int janela, int oculta,
+                       float[] w1, float[] b1, float[] w2, float[] b2) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSAO);
+        data.writeInt(janela);
+        data.writeInt(oculta);
+        for (float[] bloco : new float[][]{w1, b1, w2, b2}) {
+            for (float v : bloco) data.writeFloat(v);
+        }
+        data.flush();
+    }
+
+    private static float[] lerFloats(DataInputStream data, int qtd) throws IOException {
+        float[] v = new float[qtd];
+        for (int i = 0; i < qtd; i++) v[i] = data.readFloat();
+        return v;
+    }
+}
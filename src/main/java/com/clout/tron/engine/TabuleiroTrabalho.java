@@ -0,0 +1,288 @@
+package com.clout.tron.engine;
+
+import java.util.Arrays;
+
+/**
+ * Tabuleiro de rascunho reaproveitado entre decisões, um por thread.
+ *
+ * Nada é limpo entre usos: ocupação, visitas e simulação são marcadas com um
+ * número de geração, e "limpar" é só incrementar a geração. Carregar um estado
+ * custa O(células ocupadas) e cada busca custa O(células que ela visita), não
+ * O(n²), o que mantém a decisão barata em tabuleiros grandes.
+ *
+ * Índices de célula usam y * n + x; direções seguem UP, DOWN, LEFT, RIGHT (0..3).
+ */
+public final class TabuleiroTrabalho {
+
+    public static final int UP = 0;
+    public static final int DOWN = 1;
+    public static final int LEFT = 2;
+    public static final int RIGHT = 3;
+
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0};
+
+    // ordem de tentativas da simulação gulosa: segue reto, depois as duas curvas
+    private static final int[][] TENTATIVAS = {
+            {UP, LEFT, RIGHT},
+            {DOWN, LEFT, RIGHT},
+            {LEFT, UP, DOWN},
+            {RIGHT, UP, DOWN}
+    };
+
+    private static final ThreadLocal<TabuleiroTrabalho> POR_THREAD =
+            ThreadLocal.withInitial(TabuleiroTrabalho::new);
+
+    private int n;
+    private Object dono;
+
+    private int[] ocupadoEm = new int[0];
+    private int[] visitadoEm = new int[0];
+    private int[] simuladoEm = new int[0];
+    private int[] origem = new int[0];     // multi-fonte: 1 = bot, 2 = oponente, 3 = empate
+    private int[] distancia = new int[0];
+    private int[] fila = new int[0];
+    private int[] ocupadas = new int[0];   // células do estado carregado, cada uma uma vez
+    private int qtdOcupadas;
+
+    private int geracaoEstado;
+    private int geracaoBusca;
+    private int geracaoSimulacao;
+
+    public static TabuleiroTrabalho daThread() {
+        return POR_THREAD.get();
+    }
+
+    /**
+     * Começa um novo estado vazio de lado n. "dono" identifica o estado carregado
+     * para que vários helpers da mesma decisão não recarreguem as ocupadas.
+     */
+    public void iniciar(int n, Object dono) {
+        int celulas = n * n;
+        if (celulas > ocupadoEm.length) {
+            int cap = Math.max(celulas, ocupadoEm.length * 2);
+            ocupadoEm = new int[cap];
+            visitadoEm = new int[cap];
+            simuladoEm = new int[cap];
+            origem = new int[cap];
+            distancia = new int[cap];
+            fila = new int[cap];
+            ocupadas = new int[cap];
+            geracaoEstado = geracaoBusca = geracaoSimulacao = 0;
+        }
+        this.n = n;
+        this.dono = dono;
+        qtdOcupadas = 0;
+        geracaoEstado = proxima(geracaoEstado, ocupadoEm);
+    }
+
+    public Object dono() {
+        return dono;
+    }
+
+    public int lado() {
+        return n;
+    }
+
+    public void ocupar(int x, int y) {
+        if (!dentro(x, y)) return;
+        int idx = y * n + x;
+        if (ocupadoEm[idx] == geracaoEstado) return;
+        ocupadoEm[idx] = geracaoEstado;
+        ocupadas[qtdOcupadas++] = idx;
+    }
+
+    /** Quantas células distintas o estado carregado ocupa. */
+    public int qtdOcupadas() {
+        return qtdOcupadas;
+    }
+
+    /** Índice (y * n + x) da i-ésima célula ocupada, na ordem em que foi ocupada. */
+    public int ocupada(int i) {
+        return ocupadas[i];
+    }
+
+    public boolean dentro(int x, int y) {
+        return x >= 0 && x < n && y >= 0 && y < n;
+    }
+
+    public boolean livre(int x, int y) {
+        return dentro(x, y) && ocupadoEm[y * n + x] != geracaoEstado;
+    }
+
+    public static int dx(int dir) {
+        return DX[dir];
+    }
+
+    public static int dy(int dir) {
+        return DY[dir];
+    }
+
+    public static boolean opostas(int a, int b) {
+        return (a ^ 1) == b;
+    }
+
+    /**
+     * Flood fill a partir de (x, y) que para ao contar "limite" células.
+     * Retorna 0 se a célula inicial não estiver livre.
+     */
+    public int area(int x, int y, int limite) {
+        if (!livre(x, y)) return 0;
+        geracaoBusca = proxima(geracaoBusca, visitadoEm);
+
+        int ini = 0, fim = 0;
+        int inicio = y * n + x;
+        visitadoEm[inicio] = geracaoBusca;
+        fila[fim++] = inicio;
+
+        while (ini < fim && fim < limite) {
+            int atual = fila[ini++];
+            int cx = atual % n, cy = atual / n;
+            for (int d = 0; d < 4 && fim < limite; d++) {
+                int nx = cx + DX[d], ny = cy + DY[d];
+                if (!livre(nx, ny)) continue;
+                int idx = ny * n + nx;
+                if (visitadoEm[idx] == geracaoBusca) continue;
+                visitadoEm[idx] = geracaoBusca;
+                fila[fim++] = idx;
+            }
+        }
+        return Math.min(fim, limite);
+    }
+
+    /**
+     * Anda de forma gulosa a partir de (x, y) chegando pela direção "dir" (segue reto,
+     * senão vira) e conta quantos passos dá antes de bater, até "passos".
+     * As células do rastro simulado ficam só na geração de simulação; o estado carregado
+     * não é alterado.
+     */
+    public int sobrevivencia(int x, int y, int dir, int passos) {
+        if (!livre(x, y)) return 0;
+        geracaoSimulacao = proxima(geracaoSimulacao, simuladoEm);
+        simuladoEm[y * n + x] = geracaoSimulacao;
+
+        int sobreviveu = 0;
+        for (int passo = 0; passo < passos; passo++) {
+            boolean moveu = false;
+            for (int cand : TENTATIVAS[dir]) {
+                int nx = x + DX[cand], ny = y + DY[cand];
+                if (!livre(nx, ny)) continue;
+                int idx = ny * n + nx;
+                if (simuladoEm[idx] == geracaoSimulacao) continue;
+
+                x = nx;
+                y = ny;
+                dir = cand;
+                simuladoEm[idx] = geracaoSimulacao;
+                sobreviveu++;
+                moveu = true;
+                break;
+            }
+            if (!moveu) break;
+        }
+        return sobreviveu;
+    }
+
+    /**
+     * Território por BFS multi-fonte: o bot parte de (bx, by) e todos os oponentes
+     * partem juntos das suas cabeças; conta as células livres que o bot alcança
+     * estritamente antes de qualquer oponente, até a distância "raio".
+     * cabecas[] traz os índices (y * n + x) das cabeças dos oponentes.
+     */
+    public int territorio(int bx, int by, int[] cabecas, int qtdCabecas, int raio) {
+        if (!dentro(bx, by)) return 0;
+        geracaoBusca = proxima(geracaoBusca, visitadoEm);
+
+        int ini = 0, fim = 0;
+        int bot = by * n + bx;
+        visitadoEm[bot] = geracaoBusca;
+        origem[bot] = 1;
+        distancia[bot] = 0;
+        fila[fim++] = bot;
+
+        for (int i = 0; i < qtdCabecas; i++) {
+            int c = cabecas[i];
+            if (c < 0 || c >= n * n) continue;
+            if (visitadoEm[c] == geracaoBusca) {
+                origem[c] = 3;
+                continue;
+            }
+            visitadoEm[c] = geracaoBusca;
+            origem[c] = 2;
+            distancia[c] = 0;
+            fila[fim++] = c;
+        }
+
+        int celulasBot = 0;
+        while (ini < fim) {
+            int atual = fila[ini++];
+            int o = origem[atual];
+            if (o == 3 || distancia[atual] >= raio) continue; // empate não se propaga
+            int cx = atual % n, cy = atual / n;
+            int dist = distancia[atual] + 1;
+
+            for (int d = 0; d < 4; d++) {
+                int nx = cx + DX[d], ny = cy + DY[d];
+                if (!livre(nx, ny)) continue;
+                int idx = ny * n + nx;
+                if (visitadoEm[idx] != geracaoBusca) {
+                    visitadoEm[idx] = geracaoBusca;
+                    origem[idx] = o;
+                    distancia[idx] = dist;
+                    fila[fim++] = idx;
+                    if (o == 1) celulasBot++;
+                } else if (distancia[idx] == dist && origem[idx] != o && origem[idx] != 3) {
+                    if (origem[idx] == 1) celulasBot--;
+                    origem[idx] = 3;
+                }
+            }
+        }
+        return celulasBot;
+    }
+
+    /**
+     * true se alguma das cabeças é alcançável a partir de (bx, by) andando por células livres
+     * (as cabeças em si estão ocupadas e contam como alcançadas quando vizinhas de célula visitada).
+     * Sem teto: visita cada célula da região do bot no máximo uma vez e para na primeira
+     * cabeça encontrada, então só varre a região inteira quando ela está de fato separada.
+     */
+    public boolean alcancaAlguma(int bx, int by, int[] cabecas, int qtdCabecas) {
+        if (!dentro(bx, by) || qtdCabecas == 0) return false;
+        geracaoBusca = proxima(geracaoBusca, visitadoEm);
+
+        // marca as cabeças-alvo com a geração de simulação para teste O(1)
+        geracaoSimulacao = proxima(geracaoSimulacao, simuladoEm);
+        for (int i = 0; i < qtdCabecas; i++) {
+            int c = cabecas[i];
+            if (c >= 0 && c < n * n) simuladoEm[c] = geracaoSimulacao;
+        }
+
+        int ini = 0, fim = 0;
+        int inicio = by * n + bx;
+        visitadoEm[inicio] = geracaoBusca;
+        fila[fim++] = inicio;
+
+        while (ini < fim) {
+            int atual = fila[ini++];
+            int cx = atual % n, cy = atual / n;
+            for (int d = 0; d < 4; d++) {
+                int nx = cx + DX[d], ny = cy + DY[d];
+                if (!dentro(nx, ny)) continue;
+                int idx = ny * n + nx;
+                if (simuladoEm[idx] == geracaoSimulacao) return true;
+                if (visitadoEm[idx] == geracaoBusca || !livre(nx, ny)) continue;
+                visitadoEm[idx] = geracaoBusca;
+                fila[fim++] = idx;
+            }
+        }
+        return false;
+    }
+
+    private static int proxima(int geracao, int[] marcas) {
+        if (geracao == Integer.MAX_VALUE) {
+            Arrays.fill(marcas, 0);
+            return 1;
+        }
+        return geracao + 1;
+    }
+}
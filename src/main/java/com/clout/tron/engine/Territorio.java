@@ -0,0 +1,80 @@
+package com.clout.tron.engine;
+
+/**
+ * Divisão de território (Voronoi) no grid: BFS multi-fonte a partir das duas
+ * cabeças ao mesmo tempo; cada célula livre fica com quem chega primeiro
+ * (empates não contam para ninguém).
+ *
+ * Reaproveita os buffers entre chamadas, então cada instância deve ficar
+ * restrita a uma thread.
+ */
+public class Territorio {
+
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0};
+
+    private final int n;
+    private final int[] dono;      // 0 = não visitado, 1 = bot, 2 = jogador, 3 = empate
+    private final int[] distancia;
+    private final int[] fila;
+
+    public Territorio(int n) {
+        this.n = n;
+        this.dono = new int[n * n];
+        this.distancia = new int[n * n];
+        this.fila = new int[n * n];
+    }
+
+    /**
+     * Retorna (células do bot - células do jogador).
+     * livre[] usa índice y * n + x; as cabeças não precisam estar livres.
+     */
+    public int saldo(boolean[] livre, int cabecaBot, int cabecaJogador) {
+        java.util.Arrays.fill(dono, 0);
+        int ini = 0;
+        int fim = 0;
+
+        dono[cabecaBot] = 1;
+        distancia[cabecaBot] = 0;
+        fila[fim++] = cabecaBot;
+        if (cabecaJogador != cabecaBot) {
+            dono[cabecaJogador] = 2;
+            distancia[cabecaJogador] = 0;
+            fila[fim++] = cabecaJogador;
+        }
+
+        int bot = 0;
+        int jogador = 0;
+
+        while (ini < fim) {
+            int atual = fila[ini++];
+            int donoAtual = dono[atual];
+            if (donoAtual == 3) continue; // empate não se propaga
+            int x = atual % n;
+            int y = atual / n;
+            for (int d = 0; d < 4; d++) {
+                int nx = x + DX[d];
+                int ny = y + DY[d];
+                if (nx < 0 || nx >= n || ny < 0 || ny >= n) continue;
+                int idx = ny * n + nx;
+                if (!livre[idx]) continue;
+
+                if (dono[idx] == 0) {
+                    dono[idx] = donoAtual;
+                    distancia[idx] = distancia[atual] + 1;
+                    fila[fim++] = idx;
+                    if (donoAtual == 1) bot++;
+                    else jogador++;
+                } else if (dono[idx] != donoAtual && dono[idx] != 3
+                        && distancia[idx] == distancia[atual] + 1) {
+                    // chegou junto com o outro lado → célula neutra
+                    if (dono[idx] == 1) bot--;
+                    else jogador--;
+                    dono[idx] = 3;
+                }
+            }
+        }
+
+        return bot - jogador;
+    }
+}
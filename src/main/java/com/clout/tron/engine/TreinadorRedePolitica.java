@@ -0,0 +1,230 @@
+package com.clout.tron.engine;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Treina offline a RedePolitica a partir das jogadas rotuladas do banco.
+ *
+ * Entrada: TSV "acao \t resultado \t estado_json", por exemplo exportado com
+ *   mysql -B -N -e "SELECT acao, resultado, estado_json FROM jogada
+ *                   WHERE resultado IN ('WIN','LOSE')" tron_db > jogadas.tsv
+ *
+ * - política: entropia cruzada só nas jogadas de partidas vencidas pelo bot;
+ * - valor: erro quadrático contra +1 (WIN) / -1 (LOSE) em todas.
+ * Cada jogada entra também espelhada na horizontal, na vertical e nas duas.
+ *
+ * Uso:
+ *   java -cp <classpath da aplicação> com.clout.tron.engine.TreinadorRedePolitica \
+ *        jogadas.tsv src/main/resources/politica/rede-politica.bin [epocas=10] [taxa=0.005]
+ */
+public final class TreinadorRedePolitica {
+
+    private static final int JANELA = 15;
+    private static final int OCULTA = 64;
+    private static final String[] NOMES = {"UP", "DOWN", "LEFT", "RIGHT"};
+
+    // espelhamentos: direção original → direção espelhada
+    private static final int[] ESPELHO_H = {0, 1, 3, 2};
+    private static final int[] ESPELHO_V = {1, 0, 2, 3};
+
+    private record Amostra(float[] x, int acao, float resultado) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: TreinadorRedePolitica <jogadas.tsv> <saida.bin> [epocas=10] [taxa=0.005]");
+            System.exit(1);
+        }
+        int epocas = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        float taxa = args.length > 3 ? Float.parseFloat(args[3]) : 0.005f;
+
+        List<Amostra> amostras = carregar(Path.of(args[0]));
+        if (amostras.isEmpty()) {
+            System.err.println("Nenhuma jogada rotulada encontrada em " + args[0]);
+            System.exit(1);
+        }
+        System.out.printf("%d amostras (com espelhamentos)%n", amostras.size());
+
+        int entrada = RedePolitica.tamanhoEntrada(JANELA);
+        Random rnd = new Random(42);
+        float[] w1 = inicializar(OCULTA * entrada, entrada, OCULTA, rnd);
+        float[] b1 = new float[OCULTA];
+        float[] w2 = inicializar(RedePolitica.SAIDAS * OCULTA, OCULTA, RedePolitica.SAIDAS, rnd);
+        float[] b2 = new float[RedePolitica.SAIDAS];
+
+        float[] h = new float[OCULTA];
+        float[] z = new float[RedePolitica.SAIDAS];
+        float[] dz = new float[RedePolitica.SAIDAS];
+        float[] dh = new float[OCULTA];
+
+        for (int epoca = 1; epoca <= epocas; epoca++) {
+            java.util.Collections.shuffle(amostras, rnd);
+            double perdaPolitica = 0;
+            double perdaValor = 0;
+            int acertos = 0;
+            int comPolitica = 0;
+
+            for (Amostra a : amostras) {
+                float[] x = a.x();
+
+                // forward
+                for (int j = 0; j < OCULTA; j++) {
+                    float soma = b1[j];
+                    int linha = j * entrada;
+                    for (int k = 0; k < entrada; k++) soma += w1[linha + k] * x[k];
+                    h[j] = soma > 0f ? soma : 0f;
+                }
+                for (int o = 0; o < RedePolitica.SAIDAS; o++) {
+                    float soma = b2[o];
+                    int linha = o * OCULTA;
+                    for (int j = 0; j < OCULTA; j++) soma += w2[linha + j] * h[j];
+                    z[o] = soma;
+                }
+                RedePolitica.softmaxEValor(z, 0);
+
+                // gradiente da saída
+                boolean vitoria = a.resultado() > 0;
+                for (int d = 0; d < 4; d++) {
+                    dz[d] = vitoria ? z[d] - (d == a.acao() ? 1f : 0f) : 0f;
+                }
+                float v = z[4];
+                dz[4] = 2f * (v - a.resultado()) * (1f - v * v);
+
+                if (vitoria) {
+                    perdaPolitica -= Math.log(Math.max(z[a.acao()], 1e-7f));
+                    comPolitica++;
+                    int melhor = 0;
+                    for (int d = 1; d < 4; d++) if (z[d] > z[melhor]) melhor = d;
+                    if (melhor == a.acao()) acertos++;
+                }
+                perdaValor += (v - a.resultado()) * (v - a.resultado());
+
+                // backward
+                for (int j = 0; j < OCULTA; j++) {
+                    float soma = 0f;
+                    for (int o = 0; o < RedePolitica.SAIDAS; o++) soma += w2[o * OCULTA + j] * dz[o];
+                    dh[j] = h[j] > 0f ? soma : 0f;
+                }
+                for (int o = 0; o < RedePolitica.SAIDAS; o++) {
+                    int linha = o * OCULTA;
+                    for (int j = 0; j < OCULTA; j++) w2[linha + j] -= taxa * dz[o] * h[j];
+                    b2[o] -= taxa * dz[o];
+                }
+                for (int j = 0; j < OCULTA; j++) {
+                    if (dh[j] == 0f) continue;
+                    int linha = j * entrada;
+                    float g = taxa * dh[j];
+                    for (int k = 0; k < entrada; k++) {
+                        if (x[k] != 0f) w1[linha + k] -= g * x[k];
+                    }
+                    b1[j] -= g;
+                }
+            }
+
+            System.out.printf("época %d: perda política %.4f (acerto %.1f%%), perda valor %.4f%n",
+                    epoca,
+                    comPolitica == 0 ? 0 : perdaPolitica / comPolitica,
+                    comPolitica == 0 ? 0 : 100.0 * acertos / comPolitica,
+                    perdaValor / amostras.size());
+        }
+
+        try (OutputStream out = new FileOutputStream(args[1])) {
+            RedePolitica.gravar(out, JANELA, OCULTA, w1, b1, w2, b2);
+        }
+        System.out.println("Pesos gravados em " + args[1]);
+    }
+
+    // ========================= LEITURA DAS JOGADAS =========================
+
+    private static List<Amostra> carregar(Path arquivo) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<Amostra> amostras = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            String linha;
+            while ((linha = reader.readLine()) != null) {
+                String[] partes = linha.split("\t", 3);
+                if (partes.length < 3) continue;
+
+                int acao = indice(partes[0].trim());
+                String resultado = partes[1].trim();
+                if (acao < 0 || !("WIN".equalsIgnoreCase(resultado) || "LOSE".equalsIgnoreCase(resultado))) {
+                    continue;
+                }
+                float r = "WIN".equalsIgnoreCase(resultado) ? 1f : -1f;
+
+                JsonNode estado;
+                try {
+                    estado = mapper.readTree(partes[2]);
+                } catch (Exception e) {
+                    continue; // linha corrompida
+                }
+                for (int espelho = 0; espelho < 4; espelho++) {
+                    amostras.add(amostra(estado, acao, r, (espelho & 1) != 0, (espelho & 2) != 0));
+                }
+            }
+        }
+        return amostras;
+    }
+
+    private static Amostra amostra(JsonNode estado, int acao, float resultado, boolean espelhoH, boolean espelhoV) {
+        int n = estado.path("boardSize").asInt();
+        TabuleiroTrabalho t = TabuleiroTrabalho.daThread();
+        t.iniciar(n, null);
+        for (JsonNode p : estado.path("occupied")) {
+            int x = p.path("x").asInt();
+            int y = p.path("y").asInt();
+            if (x < 0 || x >= n || y < 0 || y >= n) continue;
+            t.ocupar(espelhar(x, n, espelhoH), espelhar(y, n, espelhoV));
+        }
+
+        int bx = espelhar(estado.path("botX").asInt(), n, espelhoH);
+        int by = espelhar(estado.path("botY").asInt(), n, espelhoV);
+        int px = espelhar(estado.path("playerX").asInt(), n, espelhoH);
+        int py = espelhar(estado.path("playerY").asInt(), n, espelhoV);
+
+        int dirBot = indice(estado.path("botDirection").asText(null));
+        String botDirection = dirBot < 0 ? null : NOMES[espelharDirecao(dirBot, espelhoH, espelhoV)];
+
+        float[] x = new float[RedePolitica.tamanhoEntrada(JANELA)];
+        RedePolitica.codificar(JANELA, t, bx, by, px, py, botDirection, x, 0);
+        return new Amostra(x, espelharDirecao(acao, espelhoH, espelhoV), resultado);
+    }
+
+    private static int espelhar(int c, int n, boolean espelho) {
+        return espelho ? n - 1 - c : c;
+    }
+
+    private static int espelharDirecao(int d, boolean espelhoH, boolean espelhoV) {
+        if (espelhoH) d = ESPELHO_H[d];
+        if (espelhoV) d = ESPELHO_V[d];
+        return d;
+    }
+
+    private static int indice(String dir) {
+        if (dir == null) return -1;
+        for (int d = 0; d < 4; d++) {
+            if (NOMES[d].equalsIgnoreCase(dir)) return d;
+        }
+        return -1;
+    }
+
+    private static float[] inicializar(int tamanho, int fanIn, int fanOut, Random rnd) {
+        float limite = (float) Math.sqrt(6.0 / (fanIn + fanOut));
+        float[] w = new float[tamanho];
+        for (int i = 0; i < tamanho; i++) w[i] = (rnd.nextFloat() * 2f - 1f) * limite;
+        return w;
+    }
+}
@@ -0,0 +1,29 @@
+package com.clout.tron.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Totais por direção das jogadas já removidas da tabela jogada pela retenção.
+ */
+@Entity
+@Table(name = "agregado_direcao")
+@Getter
+@Setter
+public class AgregadoDirecao {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 10)
+    private String acao;
+
+    private long vitorias;
+    private long derrotas;
+
+    // jogadas de partidas sem resultado marcado (MID)
+    @Column(name = "sem_resultado")
+    private long semResultado;
+}
@@ -0,0 +1,30 @@
+package com.clout.tron.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Vitórias/derrotas por (estado, direção) das jogadas já removidas pela retenção.
+ * O estado é identificado pelo {@link com.clout.tron.engine.FingerprintEstado}.
+ */
+@Entity
+@Table(name = "agregado_estado",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"fingerprint", "acao"}))
+@Getter
+@Setter
+public class AgregadoEstado {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private long fingerprint;
+
+    @Column(nullable = false, length = 10)
+    private String acao;
+
+    private long vitorias;
+    private long derrotas;
+}
@@ -0,0 +1,33 @@
+package com.clout.tron.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Contador de vitórias/derrotas de um nó para uma chave de aprendizado
+ * (direção ou padrão local + direção). Cada nó só escreve as próprias linhas.
+ */
+@Entity
+@Table(name = "aprendizado_contador",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"no_origem", "chave"}))
+@Getter
+@Setter
+public class ContadorAprendizado {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "no_origem", nullable = false, length = 100)
+    private String no;
+
+    @Column(nullable = false, length = 40)
+    private String chave;
+
+    private long vitorias;
+    private long derrotas;
+
+    // versão de publicação do nó de origem (cresce a cada envio de deltas)
+    private long versao;
+}
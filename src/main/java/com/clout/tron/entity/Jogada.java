@@ -5,7 +5,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 @Entity
-@Table(name = "jogada")
+@Table(name = "jogada", indexes = @Index(name = "idx_jogada_fingerprint", columnList = "fingerprint"))
 @Getter
 @Setter
 public class Jogada {
@@ -24,5 +24,9 @@ public class Jogada {
     private String estadoJson;
 
     private String acao;      // UP/DOWN/LEFT/RIGHT
-    private String resultado; // "WIN", "LOSE", "MID"
+    private String resultado; // "WIN", "LOSE", "MID"; "ABORT" em partida interrompida
+    private String tier;      // camada do motor que decidiu (DecisaoIA.Tier)
+
+    // chave do cache de estado (JogadaService.fingerprint); null com oponentes extras
+    private Long fingerprint;
 }
@@ -23,4 +23,6 @@ public class Partida {
 
     @Column(name = "data_hora")
     private LocalDateTime dataHora;
+
+    private Boolean arquivada; // jogadas já consolidadas e movidas para o arquivo
 }
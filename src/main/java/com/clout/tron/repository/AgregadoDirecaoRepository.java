@@ -0,0 +1,20 @@
+package com.clout.tron.repository;
+
+import com.clout.tron.entity.AgregadoDirecao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AgregadoDirecaoRepository extends JpaRepository<AgregadoDirecao, Long> {
+
+    // soma no próprio banco (insere a linha na primeira vez): lotes concorrentes não se sobrescrevem
+    @Modifying
+    @Query(value = "insert into agregado_direcao (acao, vitorias, derrotas, sem_resultado) " +
+                   "values (:acao, :vitorias, :derrotas, :semResultado) " +
+                   "on duplicate key update vitorias = vitorias + values(vitorias), " +
+                   "derrotas = derrotas + values(derrotas), sem_resultado = sem_resultado + values(sem_resultado)",
+           nativeQuery = true)
+    int somar(@Param("acao") String acao, @Param("vitorias") long vitorias,
+              @Param("derrotas") long derrotas, @Param("semResultado") long semResultado);
+}
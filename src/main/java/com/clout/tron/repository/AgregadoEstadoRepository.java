@@ -0,0 +1,20 @@
+package com.clout.tron.repository;
+
+import com.clout.tron.entity.AgregadoEstado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AgregadoEstadoRepository extends JpaRepository<AgregadoEstado, Long> {
+
+    // mesmo upsert de agregado_direcao, pela chave única (fingerprint, acao)
+    @Modifying
+    @Query(value = "insert into agregado_estado (fingerprint, acao, vitorias, derrotas) " +
+                   "values (:fingerprint, :acao, :vitorias, :derrotas) " +
+                   "on duplicate key update vitorias = vitorias + values(vitorias), " +
+                   "derrotas = derrotas + values(derrotas)",
+           nativeQuery = true)
+    int somar(@Param("fingerprint") long fingerprint, @Param("acao") String acao,
+              @Param("vitorias") long vitorias, @Param("derrotas") long derrotas);
+}
@@ -0,0 +1,28 @@
+package com.clout.tron.repository;
+
+import com.clout.tron.entity.ContadorAprendizado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ContadorAprendizadoRepository extends JpaRepository<ContadorAprendizado, Long> {
+
+    Optional<ContadorAprendizado> findByNoAndChave(String no, String chave);
+
+    List<ContadorAprendizado> findByNoAndVersaoGreaterThan(String no, long versao);
+
+    // [no, maior versão publicada]
+    @Query("select c.no, max(c.versao) from ContadorAprendizado c group by c.no")
+    List<Object[]> maioresVersoesPorNo();
+
+    // cria a linha zerada só se ainda não existir: 1 para quem criou, 0 para os demais
+    // (um insert concorrente da mesma chave espera o commit do primeiro)
+    @Modifying
+    @Query(value = "insert ignore into aprendizado_contador (no_origem, chave, vitorias, derrotas, versao) " +
+                   "values (:no, :chave, 0, 0, 0)", nativeQuery = true)
+    int reservar(@Param("no") String no, @Param("chave") String chave);
+}
@@ -1,8 +1,14 @@
 package com.clout.tron.repository;
 
 import com.clout.tron.entity.Jogada;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface JogadaRepository extends JpaRepository<Jogada, Long> {
@@ -10,5 +16,62 @@ public interface JogadaRepository extends JpaRepository<Jogada, Long> {
     List<Jogada> findTop300ByOrderByIdDesc();
 
     List<Jogada> findByPartidaId(Long partidaId);
-    List<Jogada> findTop50ByEstadoJsonOrderByIdDesc(String estadoJson);
+
+    // cache de estado pelas jogadas gravadas antes da coluna fingerprint, até o preenchimento acabar
+    List<Jogada> findTop50ByEstadoJsonAndFingerprintIsNullOrderByIdDesc(String estadoJson);
+
+    // [acao, vitórias, derrotas] de um estado: jogadas quentes e agregado_estado numa ida ao banco,
+    // as duas pelo índice de fingerprint
+    @Query(value = "select acao, sum(vitorias), sum(derrotas) from (" +
+                   " select j.acao, j.resultado = 'WIN' as vitorias, j.resultado = 'LOSE' as derrotas" +
+                   " from jogada j where j.fingerprint = :fingerprint and j.resultado in ('WIN', 'LOSE')" +
+                   " union all" +
+                   " select a.acao, a.vitorias, a.derrotas from agregado_estado a where a.fingerprint = :fingerprint" +
+                   ") t group by acao", nativeQuery = true)
+    List<Object[]> contarResultadosPorFingerprint(@Param("fingerprint") long fingerprint);
+
+    @Query("select max(j.id) from Jogada j")
+    Long maiorId();
+
+    // [acao, resultado, quantidade] das jogadas já resolvidas até o id dado
+    @Query("select j.acao, j.resultado, count(j) from Jogada j " +
+           "where j.id <= :ate and j.resultado in ('WIN', 'LOSE') group by j.acao, j.resultado")
+    List<Object[]> contarPorAcaoEResultado(@Param("ate") long ate);
+
+    // leitura paginada por id só das colunas usadas no snapshot de análise
+    @Query("select j.id, j.partida.id, j.turno, j.acao, j.resultado, j.tier, j.estadoJson " +
+           "from Jogada j where j.id > :aPartirDe order by j.id")
+    List<Object[]> buscarColunasAnalise(@Param("aPartirDe") Long aPartirDe, Pageable pagina);
+
+    // [id, resultado] das jogadas de partidas que terminaram depois de entrar no snapshot
+    @Query("select j.id, j.resultado from Jogada j where j.partida.id in :partidas")
+    List<Object[]> buscarResultados(@Param("partidas") Collection<Long> partidas);
+
+    // [partidaId, quantidade] para montar os lotes da retenção
+    @Query("select j.partida.id, count(j) from Jogada j where j.partida.id in :partidas group by j.partida.id")
+    List<Object[]> contarPorPartida(@Param("partidas") Collection<Long> partidas);
+
+    // linhas completas das partidas que vão para o arquivo, na ordem de id
+    @Query("select j.id, j.partida.id, j.turno, j.acao, j.resultado, j.tier, j.estadoJson " +
+           "from Jogada j where j.partida.id in :partidas order by j.id")
+    List<Object[]> buscarColunasArquivo(@Param("partidas") Collection<Long> partidas);
+
+    // [id, estadoJson] das jogadas ainda sem fingerprint, paginado por id
+    @Query("select j.id, j.estadoJson from Jogada j where j.fingerprint is null and j.id > :aPartirDe order by j.id")
+    List<Object[]> buscarSemFingerprint(@Param("aPartirDe") Long aPartirDe, Pageable pagina);
+
+    @Modifying
+    @Query("update Jogada j set j.fingerprint = :fingerprint where j.id = :id and j.fingerprint is null")
+    int preencherFingerprint(@Param("id") Long id, @Param("fingerprint") long fingerprint);
+
+    // fecha só as jogadas ainda em aberto: numa repetição do fim de partida devolve 0
+    @Modifying
+    @Transactional
+    @Query("update Jogada j set j.resultado = :resultado " +
+           "where j.partida.id = :partidaId and (j.resultado is null or j.resultado = 'MID')")
+    int marcarResultadoPendentes(@Param("partidaId") Long partidaId, @Param("resultado") String resultado);
+
+    @Modifying
+    @Query("delete from Jogada j where j.partida.id in :partidas")
+    int apagarPorPartidas(@Param("partidas") Collection<Long> partidas);
 }
@@ -1,11 +1,37 @@
 package com.clout.tron.repository;
 
 import com.clout.tron.entity.Partida;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface PartidaRepository extends JpaRepository<Partida, Long> {
 
     List<Partida> findAllByOrderByDataHoraDesc();
+
+    // leitura paginada por id só das colunas usadas no snapshot de análise
+    @Query("select p.id, p.vencedor, p.duracaoTurnos, p.dataHora " +
+           "from Partida p where p.id > :aPartirDe order by p.id")
+    List<Object[]> buscarColunasAnalise(@Param("aPartirDe") Long aPartirDe, Pageable pagina);
+
+    // mesmas colunas, para reler as partidas que ainda estavam em andamento no snapshot
+    @Query("select p.id, p.vencedor, p.duracaoTurnos, p.dataHora from Partida p where p.id in :partidas")
+    List<Object[]> buscarColunasAnalisePorIds(@Param("partidas") Collection<Long> partidas);
+
+    // partidas terminadas antes do limite cujas jogadas ainda estão na tabela quente
+    @Query("select p.id from Partida p where p.vencedor is not null and p.dataHora < :limite " +
+           "and (p.arquivada is null or p.arquivada = false) order by p.id")
+    List<Long> buscarParaArquivar(@Param("limite") LocalDateTime limite, Pageable pagina);
+
+    // só marca as que ainda não estavam marcadas: o retorno menor que o lote indica outra instância
+    @Modifying
+    @Query("update Partida p set p.arquivada = true " +
+           "where p.id in :partidas and (p.arquivada is null or p.arquivada = false)")
+    int marcarArquivadas(@Param("partidas") Collection<Long> partidas);
 }
@@ -0,0 +1,376 @@
+package com.clout.tron.service;
+
+import com.clout.tron.repository.JogadaRepository;
+import com.clout.tron.repository.PartidaRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Analytics sobre o histórico a partir de um snapshot colunar em memória.
+ *
+ * O snapshot é atualizado periodicamente de forma incremental: lê só as jogadas e partidas
+ * com id maior que o último já carregado, e relê as partidas que ainda estavam em andamento
+ * (quando terminam, só o resultado das jogadas delas é relido, sem o estadoJson). A carga
+ * completa acontece uma vez, na subida. As consultas varrem as colunas com streams paralelos
+ * (fork-join comum) e acumulam em arrays primitivos, sem nenhum acesso ao banco no caminho
+ * da requisição.
+ *
+ * Limite: o snapshot só enxerga a tabela jogada. As jogadas que a retenção arquiva
+ * (RetencaoJogadasService, partidas com mais de tron.retencao.idade-dias) continuam no
+ * snapshot até a próxima subida e depois somem dos números por jogada (turno, região,
+ * tier). Os agregados da retenção não entram aqui porque não têm essas dimensões; o
+ * histórico completo fica nos segmentos (carga.ExportarArquivoJogadas). Números por
+ * partida (duração, vencedor) não mudam, porque as linhas de partida ficam.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnaliseService {
+
+    private static final int TAMANHO_PAGINA = 5000;
+
+    // partida sem vencedor há mais que isso foi abandonada: para de ser relida
+    private static final long HORAS_PARTIDA_ABERTA = 24;
+
+    private final JogadaRepository jogadaRepository;
+    private final PartidaRepository partidaRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile SnapshotAnalise snapshot = SnapshotAnalise.vazio();
+
+    // estado da carga incremental (só mexido dentro de atualizar())
+    private final SnapshotAnalise.Construtor acumulado = new SnapshotAnalise.Construtor();
+    private long ultimaPartidaId;
+    private long ultimaJogadaId;
+    private final Map<Long, Integer> partidasAbertas = new HashMap<>(); // id → linha no acumulado
+    private final List<Long> finalizadasPendentes = new ArrayList<>();   // resultado das jogadas a reler
+
+    public record Resumo(int jogadas, int partidas, Instant geradoEm, long duracaoMs) {}
+
+    public record FaixaTurno(int turnoInicial, int turnoFinal, long jogadas,
+                             long vitorias, long derrotas, double taxaVitoria) {}
+
+    public record RegiaoDirecoes(int regiaoX, int regiaoY, long[] contagem, double[] taxaVitoria) {}
+
+    public record DesempenhoTier(String tier, long jogadas, long vitorias, long derrotas,
+                                 double taxaVitoria, long partidas) {}
+
+    public record FaixaDuracao(int turnoInicial, int turnoFinal, long partidas,
+                               long vitoriasBot, double taxaVitoriaBot) {}
+
+    // =====================================================================
+    // ATUALIZAÇÃO
+    // =====================================================================
+
+    @Scheduled(initialDelayString = "${tron.analise.atraso-inicial-ms:10000}",
+               fixedDelayString = "${tron.analise.intervalo-ms:300000}")
+    public synchronized void atualizar() {
+        long inicio = System.nanoTime();
+        int jogadasAntes = snapshot.jogadas;
+
+        // os cursores avançam linha a linha: uma falha no meio não perde nem duplica nada
+        try {
+            atualizarPartidasAbertas();
+            carregarPartidasNovas();
+            carregarJogadasNovas();
+            atualizarResultados();
+        } catch (Exception e) {
+            log.warn("Falha ao atualizar snapshot de análise, mantendo o anterior: {}", e.getMessage());
+            return;
+        }
+
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        SnapshotAnalise novo = acumulado.construir(Instant.now(), duracaoMs);
+        snapshot = novo;
+        log.info("Snapshot de análise atualizado: {} jogadas (+{}), {} partidas em {} ms",
+                novo.jogadas, novo.jogadas - jogadasAntes, novo.partidas, duracaoMs);
+    }
+
+    /**
+     * Relê as partidas que estavam sem vencedor. As que terminaram vão para
+     * finalizadasPendentes (as jogadas delas ainda estão como MID no acumulado).
+     */
+    private void atualizarPartidasAbertas() {
+        if (partidasAbertas.isEmpty()) return;
+
+        long limiteAbandono = LocalDateTime.now().minusHours(HORAS_PARTIDA_ABERTA).toEpochSecond(ZoneOffset.UTC);
+        List<Long> ids = new ArrayList<>(partidasAbertas.keySet());
+        for (int ini = 0; ini < ids.size(); ini += TAMANHO_PAGINA) {
+            List<Long> parte = ids.subList(ini, Math.min(ids.size(), ini + TAMANHO_PAGINA));
+            for (Object[] linha : partidaRepository.buscarColunasAnalisePorIds(parte)) {
+                long id = (Long) linha[0];
+                byte vencedor = SnapshotAnalise.codificarVencedor((String) linha[1]);
+                LocalDateTime dataHora = (LocalDateTime) linha[3];
+                if (vencedor >= 0) {
+                    Integer duracao = (Integer) linha[2];
+                    acumulado.atualizarPartida(partidasAbertas.remove(id), vencedor, duracao != null ? duracao : -1);
+                    finalizadasPendentes.add(id);
+                } else if (dataHora != null && dataHora.toEpochSecond(ZoneOffset.UTC) < limiteAbandono) {
+                    partidasAbertas.remove(id);
+                }
+            }
+        }
+    }
+
+    private void carregarPartidasNovas() {
+        while (true) {
+            List<Object[]> pagina = partidaRepository.buscarColunasAnalise(ultimaPartidaId, PageRequest.of(0, TAMANHO_PAGINA));
+            for (Object[] linha : pagina) {
+                long id = (Long) linha[0];
+                byte vencedor = SnapshotAnalise.codificarVencedor((String) linha[1]);
+                Integer duracao = (Integer) linha[2];
+                LocalDateTime dataHora = (LocalDateTime) linha[3];
+                if (vencedor < 0) partidasAbertas.put(id, acumulado.partidas());
+                acumulado.adicionarPartida(id, vencedor,
+                        duracao != null ? duracao : -1,
+                        dataHora != null ? dataHora.toEpochSecond(ZoneOffset.UTC) : -1);
+                ultimaPartidaId = id;
+            }
+            if (pagina.size() < TAMANHO_PAGINA) return;
+        }
+    }
+
+    private void carregarJogadasNovas() {
+        int[] cabecas = new int[5];
+        while (true) {
+            List<Object[]> pagina = jogadaRepository.buscarColunasAnalise(ultimaJogadaId, PageRequest.of(0, TAMANHO_PAGINA));
+            for (Object[] linha : pagina) {
+                long id = (Long) linha[0];
+                decodificarCabecas((String) linha[6], cabecas);
+                acumulado.adicionarJogada(id,
+                        linha[1] != null ? (Long) linha[1] : -1,
+                        (Integer) linha[2],
+                        SnapshotAnalise.codificarDirecao((String) linha[3]),
+                        SnapshotAnalise.codificarResultado((String) linha[4]),
+                        SnapshotAnalise.codificarTier((String) linha[5]),
+                        cabecas[0], cabecas[1], cabecas[2], cabecas[3], cabecas[4]);
+                ultimaJogadaId = id;
+            }
+            if (pagina.size() < TAMANHO_PAGINA) return;
+        }
+    }
+
+    /** Resultado das jogadas já carregadas das partidas que terminaram desde a última atualização. */
+    private void atualizarResultados() {
+        for (int ini = 0; ini < finalizadasPendentes.size(); ini += TAMANHO_PAGINA) {
+            List<Long> parte = finalizadasPendentes.subList(ini, Math.min(finalizadasPendentes.size(), ini + TAMANHO_PAGINA));
+            for (Object[] linha : jogadaRepository.buscarResultados(parte)) {
+                int i = acumulado.linhaDaJogada((Long) linha[0]);
+                if (i >= 0) acumulado.atualizarResultado(i, SnapshotAnalise.codificarResultado((String) linha[1]));
+            }
+        }
+        finalizadasPendentes.clear();
+    }
+
+    /**
+     * Lê só os campos escalares do estado (boardSize, botX, botY, playerX, playerY) com o
+     * parser de streaming, pulando a lista de ocupadas sem materializá-la.
+     */
+    private void decodificarCabecas(String estadoJson, int[] saida) {
+        saida[0] = saida[1] = saida[2] = saida[3] = saida[4] = -1;
+        if (estadoJson == null) return;
+
+        try (JsonParser p = objectMapper.getFactory().createParser(estadoJson)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) return;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = p.currentName();
+                JsonToken valor = p.nextToken();
+                if (valor == JsonToken.START_ARRAY || valor == JsonToken.START_OBJECT) {
+                    p.skipChildren();
+                    continue;
+                }
+                if (valor != JsonToken.VALUE_NUMBER_INT) continue;
+                switch (campo) {
+                    case "boardSize" -> saida[0] = p.getIntValue();
+                    case "botX" -> saida[1] = p.getIntValue();
+                    case "botY" -> saida[2] = p.getIntValue();
+                    case "playerX" -> saida[3] = p.getIntValue();
+                    case "playerY" -> saida[4] = p.getIntValue();
+                    default -> { }
+                }
+            }
+        } catch (Exception e) {
+            // estado corrompido: a linha entra sem cabeças e fica fora do mapa de direções
+        }
+    }
+
+    // =====================================================================
+    // CONSULTAS
+    // =====================================================================
+
+    public Resumo resumo() {
+        SnapshotAnalise s = snapshot;
+        return new Resumo(s.jogadas, s.partidas, s.geradoEm, s.duracaoMs);
+    }
+
+    /**
+     * Taxa de vitória das jogadas já resolvidas (WIN/LOSE) agrupadas por faixa de turno.
+     */
+    public List<FaixaTurno> vitoriasPorTurno(int tamanhoFaixa) {
+        SnapshotAnalise s = snapshot;
+        int faixa = Math.max(1, tamanhoFaixa);
+        int maxTurno = IntStream.range(0, s.jogadas).parallel().map(i -> s.turno[i]).max().orElse(0);
+        int faixas = Math.max(0, maxTurno) / faixa + 1;
+
+        // por faixa: [vitórias, derrotas]
+        long[] acc = IntStream.range(0, s.jogadas).parallel().collect(
+                () -> new long[faixas * 2],
+                (a, i) -> {
+                    byte r = s.resultado[i];
+                    if (r != SnapshotAnalise.RESULTADO_WIN && r != SnapshotAnalise.RESULTADO_LOSE) return;
+                    int f = Math.max(0, s.turno[i]) / faixa;
+                    a[f * 2 + (r == SnapshotAnalise.RESULTADO_WIN ? 0 : 1)]++;
+                },
+                AnaliseService::somar);
+
+        List<FaixaTurno> out = new ArrayList<>();
+        for (int f = 0; f < faixas; f++) {
+            long v = acc[f * 2], d = acc[f * 2 + 1];
+            if (v + d == 0) continue;
+            out.add(new FaixaTurno(f * faixa, (f + 1) * faixa - 1, v + d, v, d, taxa(v, v + d)));
+        }
+        return out;
+    }
+
+    /**
+     * Mapa de calor das direções escolhidas pelo bot por região do tabuleiro (quadrados de
+     * tamanhoRegiao células, pela posição da cabeça do bot), com a taxa de vitória de cada uma.
+     */
+    public List<RegiaoDirecoes> mapaDirecoes(int tamanhoRegiao) {
+        SnapshotAnalise s = snapshot;
+        int regiao = Math.max(1, tamanhoRegiao);
+        int maxBoard = IntStream.range(0, s.jogadas).parallel().map(i -> s.boardSize[i]).max().orElse(0);
+        if (maxBoard <= 0) return List.of();
+        int lado = (maxBoard + regiao - 1) / regiao;
+        int direcoes = SnapshotAnalise.DIRECOES.length;
+
+        // por (região, direção): [total, vitórias, resolvidas]
+        long[] acc = IntStream.range(0, s.jogadas).parallel().collect(
+                () -> new long[lado * lado * direcoes * 3],
+                (a, i) -> {
+                    int d = s.acao[i];
+                    int x = s.botX[i], y = s.botY[i];
+                    if (d < 0 || x < 0 || y < 0 || x >= maxBoard || y >= maxBoard) return;
+                    int base = (((y / regiao) * lado + (x / regiao)) * direcoes + d) * 3;
+                    a[base]++;
+                    byte r = s.resultado[i];
+                    if (r == SnapshotAnalise.RESULTADO_WIN) { a[base + 1]++; a[base + 2]++; }
+                    else if (r == SnapshotAnalise.RESULTADO_LOSE) a[base + 2]++;
+                },
+                AnaliseService::somar);
+
+        List<RegiaoDirecoes> out = new ArrayList<>();
+        for (int ry = 0; ry < lado; ry++) {
+            for (int rx = 0; rx < lado; rx++) {
+                long[] contagem = new long[direcoes];
+                double[] taxas = new double[direcoes];
+                long total = 0;
+                for (int d = 0; d < direcoes; d++) {
+                    int base = ((ry * lado + rx) * direcoes + d) * 3;
+                    contagem[d] = acc[base];
+                    taxas[d] = taxa(acc[base + 1], acc[base + 2]);
+                    total += acc[base];
+                }
+                if (total > 0) out.add(new RegiaoDirecoes(rx, ry, contagem, taxas));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Compara as camadas do motor (livro, endgame, política, LLMs, fallback...) pela taxa de
+     * vitória das jogadas que cada uma decidiu e pelo número de partidas em que apareceu.
+     */
+    public List<DesempenhoTier> desempenhoPorTier() {
+        SnapshotAnalise s = snapshot;
+        DecisaoIA.Tier[] tiers = DecisaoIA.Tier.values();
+        int n = tiers.length;
+
+        // por tier: [jogadas, vitórias, derrotas]
+        long[] acc = IntStream.range(0, s.jogadas).parallel().collect(
+                () -> new long[n * 3],
+                (a, i) -> {
+                    int t = s.tier[i];
+                    if (t < 0) return;
+                    a[t * 3]++;
+                    byte r = s.resultado[i];
+                    if (r == SnapshotAnalise.RESULTADO_WIN) a[t * 3 + 1]++;
+                    else if (r == SnapshotAnalise.RESULTADO_LOSE) a[t * 3 + 2]++;
+                },
+                AnaliseService::somar);
+
+        // partidas distintas por tier: um BitSet de ids por tier, cada tier numa tarefa
+        long[] partidasPorTier = IntStream.range(0, n).parallel().mapToLong(t -> {
+            long cont = 0;
+            BitSet vistas = new BitSet();
+            for (int i = 0; i < s.jogadas; i++) {
+                if (s.tier[i] != t) continue;
+                long p = s.partidaDaJogada[i];
+                if (p < 0 || p > Integer.MAX_VALUE) continue;
+                if (!vistas.get((int) p)) { vistas.set((int) p); cont++; }
+            }
+            return cont;
+        }).toArray();
+
+        List<DesempenhoTier> out = new ArrayList<>();
+        for (int t = 0; t < n; t++) {
+            long j = acc[t * 3], v = acc[t * 3 + 1], d = acc[t * 3 + 2];
+            if (j == 0) continue;
+            out.add(new DesempenhoTier(tiers[t].name(), j, v, d, taxa(v, v + d), partidasPorTier[t]));
+        }
+        return out;
+    }
+
+    /**
+     * Partidas encerradas agrupadas por duração, com a taxa de vitória do bot em cada faixa.
+     */
+    public List<FaixaDuracao> partidasPorDuracao(int tamanhoFaixa) {
+        SnapshotAnalise s = snapshot;
+        int faixa = Math.max(1, tamanhoFaixa);
+        int maxDuracao = IntStream.range(0, s.partidas).parallel().map(i -> s.duracaoTurnos[i]).max().orElse(0);
+        int faixas = Math.max(0, maxDuracao) / faixa + 1;
+
+        // por faixa: [partidas, vitórias do bot]
+        long[] acc = IntStream.range(0, s.partidas).parallel().collect(
+                () -> new long[faixas * 2],
+                (a, i) -> {
+                    if (s.duracaoTurnos[i] < 0 || s.vencedor[i] < 0) return;
+                    int f = s.duracaoTurnos[i] / faixa;
+                    a[f * 2]++;
+                    if (s.vencedor[i] == SnapshotAnalise.VENCEDOR_BOT) a[f * 2 + 1]++;
+                },
+                AnaliseService::somar);
+
+        List<FaixaDuracao> out = new ArrayList<>();
+        for (int f = 0; f < faixas; f++) {
+            long p = acc[f * 2], v = acc[f * 2 + 1];
+            if (p == 0) continue;
+            out.add(new FaixaDuracao(f * faixa, (f + 1) * faixa - 1, p, v, taxa(v, p)));
+        }
+        return out;
+    }
+
+    private static void somar(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) a[i] += b[i];
+    }
+
+    private static double taxa(long parte, long total) {
+        return total == 0 ? 0.0 : (double) parte / total;
+    }
+}
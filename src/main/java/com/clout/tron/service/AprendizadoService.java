@@ -0,0 +1,290 @@
+package com.clout.tron.service;
+
+import com.clout.tron.dto.EstadoDTO;
+import com.clout.tron.entity.Jogada;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aprendizado global (vitórias/derrotas por direção e por padrão local) servido da memória.
+ *
+ * Cada instância mantém um {@link ContadoresAprendizado} e troca deltas com as outras
+ * periodicamente pelo {@link TransporteAprendizado}; a defasagem entre nós fica limitada
+ * ao intervalo de sincronização. Para testar várias instâncias na mesma máquina basta
+ * subir cada uma com um server.port (ou tron.aprendizado.no) diferente no mesmo banco.
+ *
+ * O histórico anterior aos contadores entra uma vez, como o nó "historico"
+ * ({@link SementeAprendizado}); fins de partida só contam jogadas acima do corte dele.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AprendizadoService {
+
+    private static final List<String> DIRECOES = List.of("UP", "DOWN", "LEFT", "RIGHT");
+
+    // nó "virtual" com os totais do histórico que já existia antes dos contadores
+    static final String NO_HISTORICO = "historico";
+
+    // linha do nó historico com o corte da semente (vitorias = maior id de jogada coberto)
+    static final String CHAVE_CORTE = "corte";
+
+    private final TransporteAprendizado transporte;
+    private final SementeAprendizado sementeAprendizado;
+    private final ObjectMapper objectMapper;
+
+    @Value("${tron.aprendizado.no:}")
+    private String noConfigurado;
+
+    @Value("${server.port:8080}")
+    private int porta;
+
+    // abaixo disso o padrão local é pouco confiável e vale o score da direção
+    @Value("${tron.aprendizado.min-amostras-padrao:20}")
+    private int minAmostrasPadrao;
+
+    private ContadoresAprendizado contadores;
+
+    // escritos só por sincronizar() (e pelo @PostConstruct antes dele)
+    private final Map<String, Long> versoesConhecidas = new ConcurrentHashMap<>();
+    private volatile long versaoLocal;
+
+    // corte recebido do nó historico (-1 enquanto não chegou)
+    private long corteRecebido = -1;
+
+    // corte em uso: só jogadas acima dele contam no fim da partida; -1 até a restauração dar certo
+    private volatile long corteHistorico = -1;
+
+    // resultados que chegaram antes da restauração, contados quando o corte for conhecido
+    private final List<ResultadoPendente> pendentes = new ArrayList<>();
+
+    private record ResultadoPendente(List<Jogada> jogadas, boolean vitoria) {
+    }
+
+    @PostConstruct
+    void iniciar() {
+        contadores = new ContadoresAprendizado(identificarNo());
+        if (restaurar()) {
+            log.info("Aprendizado do nó '{}' iniciado (versão {})", contadores.noLocal(), versaoLocal);
+        }
+    }
+
+    /**
+     * Restaura o que já foi publicado, inclusive as linhas do próprio nó (reinício com o
+     * mesmo id), e o corte do histórico, semeando o histórico se nenhum nó fez isso ainda.
+     * Enquanto não der certo o nó não publica nada (não sabe a própria versão) e os fins
+     * de partida ficam pendentes; sincronizar() tenta de novo a cada ciclo.
+     */
+    private boolean restaurar() {
+        try {
+            aplicar(transporte.receber(null, Map.of()));
+            if (corteRecebido < 0) {
+                sementeAprendizado.semear();
+                aplicar(transporte.receber(null, versoesConhecidas));
+            }
+            if (corteRecebido < 0) {
+                throw new IllegalStateException("corte do histórico não encontrado");
+            }
+            versaoLocal = versoesConhecidas.getOrDefault(contadores.noLocal(), 0L);
+
+            List<ResultadoPendente> atrasados;
+            synchronized (pendentes) {
+                corteHistorico = corteRecebido;
+                atrasados = new ArrayList<>(pendentes);
+                pendentes.clear();
+            }
+            for (ResultadoPendente p : atrasados) contar(p.jogadas(), p.vitoria());
+            return true;
+        } catch (Exception e) {
+            log.warn("Não foi possível restaurar o aprendizado compartilhado (nova tentativa na sincronização): {}",
+                    e.getMessage());
+            return false;
+        }
+    }
+
+    private String identificarNo() {
+        if (noConfigurado != null && !noConfigurado.isBlank()) return noConfigurado;
+        try {
+            return InetAddress.getLocalHost().getHostName() + ":" + porta;
+        } catch (Exception e) {
+            return "localhost:" + porta;
+        }
+    }
+
+    // =====================================================================
+    // ESCRITA (fim de partida) E SINCRONIZAÇÃO
+    // =====================================================================
+
+    /**
+     * Conta o resultado final em cada jogada da partida, por direção e por padrão local.
+     * Antes da restauração o resultado fica pendente, porque o corte do histórico ainda
+     * não é conhecido.
+     */
+    public void registrarResultadoPartida(List<Jogada> jogadas, String resultadoBot) {
+        boolean vitoria = "WIN".equalsIgnoreCase(resultadoBot);
+        if (!vitoria && !"LOSE".equalsIgnoreCase(resultadoBot)) return;
+
+        synchronized (pendentes) {
+            if (corteHistorico < 0) {
+                pendentes.add(new ResultadoPendente(jogadas, vitoria));
+                return;
+            }
+        }
+        contar(jogadas, vitoria);
+    }
+
+    private void contar(List<Jogada> jogadas, boolean vitoria) {
+        long v = vitoria ? 1 : 0;
+        long d = vitoria ? 0 : 1;
+
+        for (Jogada j : jogadas) {
+            // até o corte a jogada já está (ou nunca vai estar) na semente do histórico
+            if (j.getId() <= corteHistorico) continue;
+            String acao = normalizar(j.getAcao());
+            if (acao == null) continue;
+            contadores.incrementar(chaveDirecao(acao), v, d);
+            try {
+                EstadoDTO estado = objectMapper.readValue(j.getEstadoJson(), EstadoDTO.class);
+                contadores.incrementar(chavePadrao(padraoVizinhanca(estado), acao), v, d);
+            } catch (Exception e) {
+                // estado ilegível: fica só o contador por direção
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${tron.aprendizado.intervalo-sync-ms:5000}",
+               fixedDelayString = "${tron.aprendizado.intervalo-sync-ms:5000}")
+    public synchronized void sincronizar() {
+        if (corteHistorico < 0 && !restaurar()) return;
+
+        Map<String, long[]> alterados = contadores.extrairAlterados();
+        if (!alterados.isEmpty()) {
+            try {
+                transporte.publicar(contadores.noLocal(), alterados, ++versaoLocal);
+            } catch (Exception e) {
+                contadores.remarcar(alterados.keySet());
+                log.warn("Falha ao publicar aprendizado ({} chaves): {}", alterados.size(), e.getMessage());
+            }
+        }
+
+        try {
+            aplicar(transporte.receber(contadores.noLocal(), versoesConhecidas));
+        } catch (Exception e) {
+            log.warn("Falha ao receber aprendizado dos outros nós: {}", e.getMessage());
+        }
+    }
+
+    private void aplicar(List<TransporteAprendizado.Delta> deltas) {
+        for (TransporteAprendizado.Delta d : deltas) {
+            versoesConhecidas.merge(d.no(), d.versao(), Math::max);
+            if (NO_HISTORICO.equals(d.no()) && CHAVE_CORTE.equals(d.chave())) {
+                corteRecebido = d.vitorias();
+                continue;
+            }
+            contadores.mesclar(d.no(), d.chave(), d.vitorias(), d.derrotas());
+        }
+    }
+
+    // =====================================================================
+    // LEITURA (por jogada, só memória)
+    // =====================================================================
+
+    /**
+     * Score de aprendizado por direção, em [-1, 1]. Usa o padrão local ao redor da
+     * cabeça do bot quando ele tem amostras suficientes; senão, o total da direção.
+     */
+    public Map<String, Double> scoresPorAcao(EstadoDTO estado) {
+        int padrao = padraoVizinhanca(estado);
+        Map<String, Double> score = new HashMap<>();
+        for (String dir : DIRECOES) {
+            long[] p = contadores.total(chavePadrao(padrao, dir));
+            long[] c = (p != null && p[0] + p[1] >= minAmostrasPadrao) ? p : contadores.total(chaveDirecao(dir));
+            score.put(dir, c == null ? 0.0 : (double) (c[0] - c[1]) / (c[0] + c[1] + 1));
+        }
+        return score;
+    }
+
+    /**
+     * [vitórias, derrotas] somados em todos os nós para a direção.
+     */
+    public long[] contagemDirecao(String dir) {
+        long[] c = contadores.total(chaveDirecao(dir));
+        return c == null ? new long[2] : c.clone();
+    }
+
+    public Map<String, Object> estado() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("no", contadores.noLocal());
+        out.put("versaoLocal", versaoLocal);
+        out.put("versoesConhecidas", Map.copyOf(versoesConhecidas));
+        out.put("corteHistorico", corteHistorico);
+        Map<String, long[]> totais = new LinkedHashMap<>();
+        for (String dir : DIRECOES) totais.put(dir, contagemDirecao(dir));
+        out.put("totaisDirecao", totais);
+        out.put("porNo", contadores.copiaPorNo());
+        return out;
+    }
+
+    // =====================================================================
+    // CHAVES
+    // =====================================================================
+
+    static String chaveDirecao(String dir) {
+        return "d:" + dir;
+    }
+
+    private static String chavePadrao(int padrao, String dir) {
+        return "p:" + padrao + ":" + dir;
+    }
+
+    /**
+     * Bits das 8 células ao redor da cabeça do bot (1 = parede ou rastro), lidos direto
+     * da lista de ocupadas, sem montar a matriz do tabuleiro.
+     */
+    static int padraoVizinhanca(EstadoDTO estado) {
+        int n = estado.getBoardSize();
+        int bx = estado.getBotX();
+        int by = estado.getBotY();
+        int bits = 0;
+
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                if (dx == 0 && dy == 0) continue;
+                int x = bx + dx, y = by + dy;
+                if (x < 0 || y < 0 || x >= n || y >= n) bits |= 1 << bit(dx, dy);
+            }
+        }
+        if (estado.getOccupied() != null) {
+            for (EstadoDTO.Posicao p : estado.getOccupied()) {
+                int dx = p.getX() - bx, dy = p.getY() - by;
+                if (dx < -1 || dx > 1 || dy < -1 || dy > 1 || (dx == 0 && dy == 0)) continue;
+                bits |= 1 << bit(dx, dy);
+            }
+        }
+        return bits;
+    }
+
+    private static int bit(int dx, int dy) {
+        int i = (dy + 1) * 3 + (dx + 1);
+        return i > 4 ? i - 1 : i; // pula o centro
+    }
+
+    static String normalizar(String acao) {
+        if (acao == null) return null;
+        String a = acao.trim().toUpperCase();
+        return DIRECOES.contains(a) ? a : null;
+    }
+}
@@ -0,0 +1,146 @@
+package com.clout.tron.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Registro por partida das decisões em andamento ("single-flight").
+ *
+ * - pedidos repetidos para o mesmo (partidaId, turno) esperam a mesma computação;
+ * - pedidos de turnos mais antigos que o último visto são descartados na hora;
+ * - uma computação em andamento recebe um sinal de "obsoleta" quando chega um
+ *   turno mais novo, para pular as chamadas de LLM;
+ * - partidas encerradas ficam marcadas pelo mesmo prazo de inatividade: pedidos que
+ *   chegam depois do fim são descartados em vez de recriar o registro.
+ */
+@Service
+@Slf4j
+public class CoalescenciaDecisaoService {
+
+    /** partidas sem pedidos (ou encerradas) há mais tempo que isso saem do registro */
+    private static final long INATIVIDADE_MS = 10 * 60 * 1000L;
+
+    private final ConcurrentHashMap<Long, EstadoPartida> partidas = new ConcurrentHashMap<>();
+    private volatile long ultimaLimpeza = System.currentTimeMillis();
+
+    private static final class EstadoPartida {
+        private volatile int ultimoTurno = Integer.MIN_VALUE;
+        private volatile long ultimoAcesso = System.currentTimeMillis();
+        // escrito sob synchronized(this), para não cruzar com seAtiva()
+        private volatile boolean encerrada;
+        // protegido por synchronized(this)
+        private final Map<Integer, CompletableFuture<Object>> emAndamento = new HashMap<>();
+    }
+
+    public record Resultado<T>(T valor, boolean obsoleta) {
+    }
+
+    /**
+     * Executa (ou reaproveita) a decisão do turno. O cálculo recebe um
+     * BooleanSupplier que passa a retornar true quando o turno fica obsoleto.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Resultado<T> decidir(Long partidaId, int turno, Function<BooleanSupplier, T> calculo) {
+        if (partidaId == null) {
+            return new Resultado<>(calculo.apply(() -> false), false);
+        }
+        limparInativas();
+
+        EstadoPartida ep = partidas.computeIfAbsent(partidaId, id -> new EstadoPartida());
+        if (ep.encerrada) {
+            log.debug("Partida {}: pedido do turno {} chegou depois do fim. Descartado.", partidaId, turno);
+            return new Resultado<>(null, true);
+        }
+        ep.ultimoAcesso = System.currentTimeMillis();
+
+        CompletableFuture<Object> futuro;
+        boolean lider = false;
+        synchronized (ep) {
+            if (ep.encerrada) return new Resultado<>(null, true);
+            if (turno < ep.ultimoTurno) {
+                log.debug("Partida {}: pedido do turno {} descartado (último visto: {}).", partidaId, turno, ep.ultimoTurno);
+                return new Resultado<>(null, true);
+            }
+            ep.ultimoTurno = turno;
+
+            futuro = ep.emAndamento.get(turno);
+            if (futuro == null) {
+                futuro = new CompletableFuture<>();
+                ep.emAndamento.put(turno, futuro);
+                lider = true;
+            }
+        }
+
+        BooleanSupplier obsoleta = () -> turno < ep.ultimoTurno || ep.encerrada;
+
+        if (!lider) {
+            log.debug("Partida {}: pedido duplicado do turno {} aguardando a decisão em andamento.", partidaId, turno);
+            try {
+                T valor = (T) futuro.join();
+                return new Resultado<>(valor, obsoleta.getAsBoolean());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                throw e;
+            }
+        }
+
+        try {
+            T valor = calculo.apply(obsoleta);
+            futuro.complete(valor);
+            return new Resultado<>(valor, obsoleta.getAsBoolean());
+        } catch (RuntimeException e) {
+            futuro.completeExceptionally(e);
+            throw e;
+        } finally {
+            synchronized (ep) {
+                ep.emAndamento.remove(turno);
+            }
+        }
+    }
+
+    /**
+     * Roda a ação só se a partida ainda não foi encerrada. A checagem e a ação ficam sob o
+     * mesmo lock de encerrar(): depois que ele retorna, nenhuma ação da partida está rodando
+     * nem começa (ex.: registrar uma jogada que ficaria em MID para sempre).
+     */
+    public boolean seAtiva(Long partidaId, Runnable acao) {
+        if (partidaId == null) {
+            acao.run();
+            return true;
+        }
+        EstadoPartida ep = partidas.computeIfAbsent(partidaId, id -> new EstadoPartida());
+        synchronized (ep) {
+            if (ep.encerrada) return false;
+            acao.run();
+            return true;
+        }
+    }
+
+    /**
+     * Chamado no fim da partida: marca o registro como encerrado (em vez de removê-lo) para
+     * que pedidos atrasados recebam 204 até o registro expirar por inatividade.
+     */
+    public void encerrar(Long partidaId) {
+        if (partidaId == null) return;
+        EstadoPartida ep = partidas.computeIfAbsent(partidaId, id -> new EstadoPartida());
+        synchronized (ep) {
+            ep.encerrada = true;
+            ep.ultimoAcesso = System.currentTimeMillis();
+        }
+    }
+
+    private void limparInativas() {
+        long agora = System.currentTimeMillis();
+        if (agora - ultimaLimpeza < 60_000L) return;
+        ultimaLimpeza = agora;
+        partidas.entrySet().removeIf(e -> agora - e.getValue().ultimoAcesso > INATIVIDADE_MS);
+    }
+}
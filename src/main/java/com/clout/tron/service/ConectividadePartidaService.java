@@ -0,0 +1,146 @@
+package com.clout.tron.service;
+
+import com.clout.tron.dto.EstadoDTO;
+import com.clout.tron.engine.ConectividadeIncremental;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Uma {@link ConectividadeIncremental} por partida, mantida entre os pedidos.
+ *
+ * A cada pedido só as células ocupadas que a estrutura ainda não conhece são aplicadas
+ * (em geral as duas cabeças andando dois passos). Se o estado não bate com a estrutura
+ * (tabuleiro de outro tamanho, células liberadas, partida reiniciada) ela é refeita do
+ * zero. Partidas com oponentes extras não usam o registro: a estrutura é 1 contra 1.
+ * Partidas encerradas ficam marcadas até expirar, para que um pedido atrasado não
+ * reconstrua a estrutura.
+ */
+@Service
+@Slf4j
+public class ConectividadePartidaService {
+
+    /** partidas sem pedidos há mais tempo que isso saem do registro */
+    private static final long INATIVIDADE_MS = 10 * 60 * 1000L;
+
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0};
+
+    private final ConcurrentHashMap<Long, EstadoPartida> partidas = new ConcurrentHashMap<>();
+    private volatile long ultimaLimpeza = System.currentTimeMillis();
+
+    private static final class EstadoPartida {
+        private volatile long ultimoAcesso = System.currentTimeMillis();
+        // protegidos por synchronized(this)
+        private boolean encerrada;
+        private ConectividadeIncremental conectividade;
+        private int ultimoTurno = Integer.MIN_VALUE;
+        private int[] novas = new int[16];
+    }
+
+    /**
+     * Fotografia das consultas usadas na decisão, tirada com a estrutura já atualizada.
+     * areaPorDirecao[d] é o tamanho da região da célula vizinha na direção d (0 se
+     * ocupada ou fora do tabuleiro), o mesmo valor de um flood fill a partir dela;
+     * territorioPorDirecao[d] é quantas células o bot alcança antes do jogador saindo por
+     * ela (null com as motos separadas: aí o território é a própria área e quem decide é
+     * o solver de preenchimento). territorioBot/territorioJogador são as contagens Voronoi
+     * das posições atuais.
+     */
+    public record Consulta(int[] areaPorDirecao, int[] territorioPorDirecao, boolean separados,
+                           int territorioBot, int territorioJogador) {
+    }
+
+    /**
+     * Atualiza a estrutura da partida com o estado e devolve a consulta, ou null quando
+     * não há partida, o estado tem oponentes extras ou o turno é mais antigo que o último
+     * aplicado (aí o chamador decide sem ela).
+     */
+    public Consulta consultar(Long partidaId, EstadoDTO estado) {
+        if (partidaId == null || estado.getOccupied() == null) return null;
+        if (estado.getOponentes() != null && !estado.getOponentes().isEmpty()) return null;
+        limparInativas();
+
+        EstadoPartida ep = partidas.computeIfAbsent(partidaId, id -> new EstadoPartida());
+        ep.ultimoAcesso = System.currentTimeMillis();
+
+        synchronized (ep) {
+            if (ep.encerrada) return null;
+            if (estado.getTurno() < ep.ultimoTurno) {
+                log.debug("Partida {}: turno {} mais antigo que o último aplicado ({}).",
+                        partidaId, estado.getTurno(), ep.ultimoTurno);
+                return null;
+            }
+            ep.ultimoTurno = estado.getTurno();
+            atualizar(partidaId, ep, estado);
+            return consultar(ep.conectividade, estado);
+        }
+    }
+
+    /** Chamado no fim da partida: libera a estrutura e deixa só a marca de encerrada. */
+    public void encerrar(Long partidaId) {
+        if (partidaId == null) return;
+        EstadoPartida ep = partidas.computeIfAbsent(partidaId, id -> new EstadoPartida());
+        synchronized (ep) {
+            ep.encerrada = true;
+            ep.conectividade = null;
+            ep.ultimoAcesso = System.currentTimeMillis();
+        }
+    }
+
+    private void atualizar(Long partidaId, EstadoPartida ep, EstadoDTO estado) {
+        int n = estado.getBoardSize();
+        int bot = estado.getBotY() * n + estado.getBotX();
+        int jogador = estado.getPlayerY() * n + estado.getPlayerX();
+        List<EstadoDTO.Posicao> ocupadas = estado.getOccupied();
+
+        ConectividadeIncremental c = ep.conectividade;
+        if (c != null && c.lado() == n) {
+            int qtd = 0;
+            for (EstadoDTO.Posicao p : ocupadas) {
+                if (p.getX() < 0 || p.getY() < 0 || p.getX() >= n || p.getY() >= n) continue;
+                int idx = p.getY() * n + p.getX();
+                if (!c.livre(idx)) continue;
+                if (qtd == ep.novas.length) ep.novas = Arrays.copyOf(ep.novas, qtd * 2);
+                ep.novas[qtd++] = idx;
+            }
+            c.aplicar(ep.novas, qtd, bot, jogador);
+            // snapshotEstado() do tron.js manda cada ocupada uma vez: contagem diferente
+            // quer dizer que alguma célula foi liberada
+            if (c.ocupadas() == ocupadas.size()) return;
+            log.debug("Partida {}: estado não bate com a conectividade incremental. Refazendo.", partidaId);
+        }
+
+        boolean[] livre = new boolean[n * n];
+        Arrays.fill(livre, true);
+        for (EstadoDTO.Posicao p : ocupadas) {
+            if (p.getX() < 0 || p.getY() < 0 || p.getX() >= n || p.getY() >= n) continue;
+            livre[p.getY() * n + p.getX()] = false;
+        }
+        ep.conectividade = new ConectividadeIncremental(n, livre, bot, jogador);
+    }
+
+    private Consulta consultar(ConectividadeIncremental c, EstadoDTO estado) {
+        int n = c.lado();
+        int[] area = new int[4];
+        boolean separados = !c.cabecasConectadas();
+        int[] territorio = separados ? null : new int[4];
+        for (int d = 0; d < 4; d++) {
+            int x = estado.getBotX() + DX[d], y = estado.getBotY() + DY[d];
+            if (x < 0 || y < 0 || x >= n || y >= n) continue;
+            area[d] = c.tamanhoRegiao(y * n + x);
+            if (territorio != null && area[d] > 0) territorio[d] = c.territorioAPartirDe(y * n + x);
+        }
+        return new Consulta(area, territorio, separados, c.territorioBot(), c.territorioJogador());
+    }
+
+    private void limparInativas() {
+        long agora = System.currentTimeMillis();
+        if (agora - ultimaLimpeza < 60_000L) return;
+        ultimaLimpeza = agora;
+        partidas.entrySet().removeIf(e -> agora - e.getValue().ultimoAcesso > INATIVIDADE_MS);
+    }
+}
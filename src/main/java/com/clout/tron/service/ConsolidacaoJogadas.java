@@ -0,0 +1,68 @@
+package com.clout.tron.service;
+
+import com.clout.tron.repository.AgregadoDirecaoRepository;
+import com.clout.tron.repository.AgregadoEstadoRepository;
+import com.clout.tron.repository.JogadaRepository;
+import com.clout.tron.repository.PartidaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Passo transacional de um lote da retenção: marca as partidas como arquivadas, soma
+ * os agregados e apaga as jogadas das partidas do lote. Tudo ou nada, então um lote
+ * nunca é somado duas vezes nem apagado sem ter sido somado.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConsolidacaoJogadas {
+
+    private final AgregadoDirecaoRepository agregadoDirecaoRepository;
+    private final AgregadoEstadoRepository agregadoEstadoRepository;
+    private final JogadaRepository jogadaRepository;
+    private final PartidaRepository partidaRepository;
+
+    public record ChaveEstado(long fingerprint, String acao) {
+    }
+
+    /**
+     * porDirecao: acao → [vitórias, derrotas, sem resultado];
+     * porEstado: (fingerprint, acao) → [vitórias, derrotas].
+     * Retorna quantas jogadas foram apagadas.
+     */
+    @Transactional
+    public int consolidar(List<Long> partidas, Map<String, long[]> porDirecao, Map<ChaveEstado, long[]> porEstado) {
+        // marca primeiro: com várias instâncias, quem chegar depois espera o lock e desfaz tudo
+        if (partidaRepository.marcarArquivadas(partidas) != partidas.size()) {
+            throw new IllegalStateException("Lote já consolidado por outra instância: " + partidas);
+        }
+
+        // upserts que somam no banco: nada é lido e regravado, então nenhuma soma se perde
+        for (Map.Entry<String, long[]> e : porDirecao.entrySet()) {
+            long[] t = e.getValue();
+            agregadoDirecaoRepository.somar(e.getKey(), t[0], t[1], t[2]);
+        }
+        for (Map.Entry<ChaveEstado, long[]> e : porEstado.entrySet()) {
+            long[] t = e.getValue();
+            agregadoEstadoRepository.somar(e.getKey().fingerprint(), e.getKey().acao(), t[0], t[1]);
+        }
+
+        return jogadaRepository.apagarPorPartidas(partidas);
+    }
+
+    /**
+     * Grava o fingerprint (id da jogada → fingerprint) das jogadas de antes da coluna.
+     * Só preenche o que ainda está null, então repetir um lote não muda nada.
+     */
+    @Transactional
+    public int preencherFingerprints(Map<Long, Long> porId) {
+        int preenchidas = 0;
+        for (Map.Entry<Long, Long> e : porId.entrySet()) {
+            preenchidas += jogadaRepository.preencherFingerprint(e.getKey(), e.getValue());
+        }
+        return preenchidas;
+    }
+}
@@ -0,0 +1,106 @@
+package com.clout.tron.service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estado de aprendizado replicado: para cada nó e chave, um par de G-counters
+ * (vitórias, derrotas). O nó local só incrementa as próprias entradas; as dos
+ * outros nós chegam por merge (máximo), o que torna o merge comutativo,
+ * associativo e idempotente.
+ *
+ * Escritas são raras (fim de partida e sincronização) e serializadas; as leituras
+ * por jogada vão direto ao mapa de totais, sem lock.
+ */
+final class ContadoresAprendizado {
+
+    private final String noLocal;
+
+    // nó -> chave -> [vitórias, derrotas]
+    private final Map<String, Map<String, long[]>> porNo = new HashMap<>();
+
+    // chave -> [vitórias, derrotas] somados em todos os nós (arrays nunca são alterados após publicados)
+    private final Map<String, long[]> totais = new ConcurrentHashMap<>();
+
+    // chaves locais alteradas desde a última publicação
+    private final Set<String> alterados = new HashSet<>();
+
+    ContadoresAprendizado(String noLocal) {
+        this.noLocal = noLocal;
+    }
+
+    String noLocal() {
+        return noLocal;
+    }
+
+    synchronized void incrementar(String chave, long vitorias, long derrotas) {
+        long[] c = porNo.computeIfAbsent(noLocal, k -> new HashMap<>())
+                .computeIfAbsent(chave, k -> new long[2]);
+        c[0] += vitorias;
+        c[1] += derrotas;
+        alterados.add(chave);
+        recalcularTotal(chave);
+    }
+
+    /**
+     * Merge de um valor publicado por um nó. Retorna true se algo mudou.
+     */
+    synchronized boolean mesclar(String no, String chave, long vitorias, long derrotas) {
+        long[] c = porNo.computeIfAbsent(no, k -> new HashMap<>())
+                .computeIfAbsent(chave, k -> new long[2]);
+        if (vitorias <= c[0] && derrotas <= c[1]) return false;
+        c[0] = Math.max(c[0], vitorias);
+        c[1] = Math.max(c[1], derrotas);
+        recalcularTotal(chave);
+        return true;
+    }
+
+    /**
+     * Copia os valores locais das chaves alteradas e limpa a marcação.
+     */
+    synchronized Map<String, long[]> extrairAlterados() {
+        Map<String, long[]> out = new HashMap<>();
+        Map<String, long[]> locais = porNo.getOrDefault(noLocal, Map.of());
+        for (String chave : alterados) {
+            out.put(chave, locais.get(chave).clone());
+        }
+        alterados.clear();
+        return out;
+    }
+
+    /**
+     * Volta a marcar chaves cuja publicação falhou.
+     */
+    synchronized void remarcar(Set<String> chaves) {
+        alterados.addAll(chaves);
+    }
+
+    long[] total(String chave) {
+        return totais.get(chave);
+    }
+
+    synchronized Map<String, Map<String, long[]>> copiaPorNo() {
+        Map<String, Map<String, long[]>> copia = new HashMap<>();
+        porNo.forEach((no, chaves) -> {
+            Map<String, long[]> m = new HashMap<>();
+            chaves.forEach((k, v) -> m.put(k, v.clone()));
+            copia.put(no, m);
+        });
+        return copia;
+    }
+
+    private void recalcularTotal(String chave) {
+        long v = 0, d = 0;
+        for (Map<String, long[]> chaves : porNo.values()) {
+            long[] c = chaves.get(chave);
+            if (c != null) {
+                v += c[0];
+                d += c[1];
+            }
+        }
+        totais.put(chave, new long[]{v, d});
+    }
+}
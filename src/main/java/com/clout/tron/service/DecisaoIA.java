@@ -0,0 +1,19 @@
+package com.clout.tron.service;
+
+/**
+ * Resultado de uma decisão do bot: a direção e qual camada do motor respondeu.
+ */
+public record DecisaoIA(String direcao, Tier tier) {
+
+    public enum Tier {
+        LIVRO,          // livro de aberturas
+        ENDGAME,        // solver de preenchimento (motos separadas)
+        CACHE,          // mesmo estado já visto no banco
+        POLITICA,       // rede de política local
+        TRIAGEM,        // scores locais sem dúvida: LLM dispensado
+        SEM_ORCAMENTO,  // orçamento global de chamadas LLM esgotado
+        GEMINI,
+        GPT,
+        FALLBACK        // fallback local de sobrevivência
+    }
+}
@@ -1,6 +1,8 @@
 package com.clout.tron.service;
 
 import com.clout.tron.dto.EstadoDTO;
+import com.clout.tron.engine.FingerprintEstado;
+import com.clout.tron.engine.TabuleiroTrabalho;
 import com.clout.tron.entity.Jogada;
 import com.clout.tron.entity.Partida;
 import com.clout.tron.repository.JogadaRepository;
@@ -18,8 +20,9 @@ public class JogadaService {
     private final JogadaRepository jogadaRepository;
     private final PartidaRepository partidaRepository;
     private final ObjectMapper objectMapper;
+    private final AprendizadoService aprendizadoService;
 
-    public void registrar(Long partidaId, int turno, EstadoDTO estado, String acao) {
+    public void registrar(Long partidaId, int turno, EstadoDTO estado, String acao, String tier) {
         Partida partida = partidaRepository.findById(partidaId)
                 .orElseThrow(() -> new IllegalArgumentException("Partida não encontrada: " + partidaId));
 
@@ -29,6 +32,8 @@ public class JogadaService {
             jogada.setTurno(turno);
             jogada.setAcao(acao);
             jogada.setResultado("MID");
+            jogada.setTier(tier);
+            jogada.setFingerprint(fingerprint(estado));
             jogada.setEstadoJson(objectMapper.writeValueAsString(estado));
             jogadaRepository.save(jogada);
         } catch (Exception e) {
@@ -36,12 +41,40 @@ public class JogadaService {
         }
     }
 
+    /**
+     * Fecha as jogadas da partida com o resultado do bot e conta no aprendizado só as que
+     * ainda estavam em aberto: um fim de partida repetido ou reenviado não conta de novo.
+     */
     public void marcarResultadoPartida(Long partidaId, String resultadoBot) {
-        List<Jogada> jogadas = jogadaRepository.findByPartidaId(partidaId);
-        for (Jogada j : jogadas) {
-            j.setResultado(resultadoBot);
+        List<Jogada> pendentes = jogadaRepository.findByPartidaId(partidaId).stream()
+                .filter(j -> j.getResultado() == null || "MID".equalsIgnoreCase(j.getResultado()))
+                .toList();
+        if (pendentes.isEmpty()) return;
+
+        // o update condicional decide entre pedidos concorrentes: só quem fechou as linhas conta
+        if (jogadaRepository.marcarResultadoPendentes(partidaId, resultadoBot) == 0) return;
+        aprendizadoService.registrarResultadoPartida(pendentes, resultadoBot);
+    }
+
+    /**
+     * Chave do cache de estado: gravada em jogada.fingerprint e usada em agregado_estado.
+     * null com oponentes extras, porque o fingerprint só vê o jogador e estados com motos
+     * diferentes colidiriam. O(células ocupadas) sobre o tabuleiro de trabalho da thread.
+     */
+    public static Long fingerprint(EstadoDTO estado) {
+        if (estado.getOponentes() != null && !estado.getOponentes().isEmpty()) return null;
+
+        TabuleiroTrabalho t = TabuleiroTrabalho.daThread();
+        if (t.dono() != estado) {
+            t.iniciar(estado.getBoardSize(), estado);
+            if (estado.getOccupied() != null) {
+                for (EstadoDTO.Posicao p : estado.getOccupied()) {
+                    t.ocupar(p.getX(), p.getY());
+                }
+            }
         }
-        jogadaRepository.saveAll(jogadas);
+        return FingerprintEstado.calcular(t, estado.getPlayerX(), estado.getPlayerY(),
+                estado.getBotX(), estado.getBotY(), estado.getBotDirection());
     }
 
     public List<Jogada> ultimasParaAprendizado(int limite) {
@@ -0,0 +1,38 @@
+package com.clout.tron.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Orçamento global de chamadas aos LLMs (token bucket), compartilhado por todas
+ * as partidas: repõe "llm-por-segundo" fichas por segundo até "llm-rajada".
+ * Cada chamada a um provedor consome uma ficha; sem ficha, decide localmente.
+ */
+@Component
+public class OrcamentoLlm {
+
+    @Value("${tron.engine.triagem.llm-por-segundo:5}")
+    private double taxaPorSegundo;
+
+    @Value("${tron.engine.triagem.llm-rajada:10}")
+    private double capacidade;
+
+    private double fichas = -1;
+    private long ultimaReposicao;
+
+    public synchronized boolean tentarConsumir() {
+        long agora = System.nanoTime();
+        if (fichas < 0) {
+            fichas = capacidade;
+        } else {
+            fichas = Math.min(capacidade, fichas + (agora - ultimaReposicao) / 1e9 * taxaPorSegundo);
+        }
+        ultimaReposicao = agora;
+
+        if (fichas >= 1) {
+            fichas -= 1;
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,240 @@
+package com.clout.tron.service;
+
+import com.clout.tron.dto.EstadoDTO;
+import com.clout.tron.repository.JogadaRepository;
+import com.clout.tron.repository.PartidaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Retenção da tabela jogada: partidas terminadas há mais de tron.retencao.idade-dias
+ * saem da tabela quente em lotes de até tron.retencao.lote-jogadas linhas.
+ *
+ * Para cada lote:
+ * 1) as linhas brutas vão para um segmento gzip em tron.retencao.diretorio
+ *    (lido pelo carga.ExportarArquivoJogadas);
+ * 2) numa transação curta, os totais por direção e por (fingerprint do estado, direção)
+ *    são somados em agregado_direcao/agregado_estado, as jogadas são apagadas e as
+ *    partidas marcadas como arquivadas.
+ * Se o processo cair entre 1 e 2 o lote é refeito na próxima execução (o segmento é
+ * regravado com o mesmo nome). As linhas de partida ficam, para o histórico.
+ * As jogadas arquivadas saem dos números por jogada de /api/analise (ver AnaliseService).
+ *
+ * Antes dos lotes, cada execução preenche jogada.fingerprint das linhas gravadas antes
+ * da coluna existir, em até max-lotes-por-execucao lotes de lote-jogadas. Enquanto isso
+ * não termina, o cache de estado também procura essas linhas pelo estado_json
+ * (ver {@link #fingerprintsPreenchidos()}).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RetencaoJogadasService {
+
+    private static final List<String> DIRECOES = List.of("UP", "DOWN", "LEFT", "RIGHT");
+
+    // partidas candidatas lidas por consulta; o lote é um prefixo delas
+    private static final int CANDIDATAS_POR_CONSULTA = 200;
+
+    private final PartidaRepository partidaRepository;
+    private final JogadaRepository jogadaRepository;
+    private final ConsolidacaoJogadas consolidacaoJogadas;
+    private final ObjectMapper objectMapper;
+
+    @Value("${tron.retencao.habilitada:true}")
+    private boolean habilitada;
+
+    @Value("${tron.retencao.idade-dias:30}")
+    private int idadeDias;
+
+    @Value("${tron.retencao.lote-jogadas:1000}")
+    private int loteJogadas;
+
+    @Value("${tron.retencao.max-lotes-por-execucao:50}")
+    private int maxLotes;
+
+    @Value("${tron.retencao.diretorio:arquivo-jogadas}")
+    private String diretorio;
+
+    private volatile Execucao ultimaExecucao;
+
+    // maior id já lido pelo preenchimento de fingerprint: linhas que continuam null
+    // (oponentes extras, estado ilegível) não são relidas na mesma vida do processo
+    private long cursorFingerprint;
+
+    private volatile boolean fingerprintsPreenchidos;
+
+    public record Execucao(LocalDateTime inicio, long duracaoMs, int jogadasComFingerprint, int lotes,
+                           int partidas, int jogadasArquivadas, int jogadasApagadas, String erro) {
+    }
+
+    @Scheduled(initialDelayString = "${tron.retencao.atraso-inicial-ms:60000}",
+               fixedDelayString = "${tron.retencao.intervalo-ms:3600000}")
+    public void agendada() {
+        if (habilitada) executar();
+    }
+
+    public synchronized Execucao executar() {
+        LocalDateTime inicio = LocalDateTime.now();
+        long t0 = System.currentTimeMillis();
+        LocalDateTime limite = inicio.minusDays(idadeDias);
+
+        int comFingerprint = 0, lotes = 0, partidas = 0, arquivadas = 0, apagadas = 0;
+        String erro = null;
+        try {
+            if (!fingerprintsPreenchidos) comFingerprint = preencherFingerprints();
+
+            Path pasta = Path.of(diretorio);
+            Files.createDirectories(pasta);
+
+            while (lotes < maxLotes) {
+                List<Long> candidatas = partidaRepository.buscarParaArquivar(limite,
+                        PageRequest.of(0, CANDIDATAS_POR_CONSULTA));
+                if (candidatas.isEmpty()) break;
+
+                List<Long> lote = montarLote(candidatas);
+                List<SegmentoJogadas.Registro> registros = carregar(lote);
+                if (!registros.isEmpty()) {
+                    long primeiro = registros.get(0).id();
+                    long ultimo = registros.get(registros.size() - 1).id();
+                    SegmentoJogadas.escrever(pasta.resolve(SegmentoJogadas.nome(primeiro, ultimo)), registros);
+                }
+
+                Map<String, long[]> porDirecao = new HashMap<>();
+                Map<ConsolidacaoJogadas.ChaveEstado, long[]> porEstado = new HashMap<>();
+                agregar(registros, porDirecao, porEstado);
+
+                apagadas += consolidacaoJogadas.consolidar(lote, porDirecao, porEstado);
+                arquivadas += registros.size();
+                partidas += lote.size();
+                lotes++;
+            }
+        } catch (Exception e) {
+            erro = e.getMessage();
+            log.error("Retenção de jogadas interrompida no lote {}.", lotes + 1, e);
+        }
+
+        Execucao execucao = new Execucao(inicio, System.currentTimeMillis() - t0, comFingerprint,
+                lotes, partidas, arquivadas, apagadas, erro);
+        ultimaExecucao = execucao;
+        if (lotes > 0) {
+            log.info("Retenção: {} partidas, {} jogadas arquivadas e apagadas em {} lotes ({} ms).",
+                    partidas, apagadas, lotes, execucao.duracaoMs());
+        }
+        return execucao;
+    }
+
+    public boolean habilitada() {
+        return habilitada;
+    }
+
+    public Execucao ultimaExecucao() {
+        return ultimaExecucao;
+    }
+
+    /**
+     * true quando nenhuma jogada gravada antes da coluna fingerprint ficou sem ela; até lá
+     * o cache de estado complementa a consulta por fingerprint com a busca por estado_json.
+     */
+    public boolean fingerprintsPreenchidos() {
+        return fingerprintsPreenchidos;
+    }
+
+    private int preencherFingerprints() {
+        int preenchidas = 0;
+        for (int lote = 0; lote < maxLotes; lote++) {
+            List<Object[]> linhas = jogadaRepository.buscarSemFingerprint(cursorFingerprint,
+                    PageRequest.of(0, loteJogadas));
+            if (linhas.isEmpty()) {
+                fingerprintsPreenchidos = true;
+                log.info("Retenção: fingerprint preenchido em todas as jogadas.");
+                break;
+            }
+
+            Map<Long, Long> porId = new HashMap<>();
+            for (Object[] l : linhas) {
+                Long fingerprint = fingerprintDe((String) l[1]);
+                if (fingerprint != null) porId.put((Long) l[0], fingerprint);
+            }
+            preenchidas += consolidacaoJogadas.preencherFingerprints(porId);
+            cursorFingerprint = (Long) linhas.get(linhas.size() - 1)[0];
+        }
+        if (preenchidas > 0) log.info("Retenção: fingerprint preenchido em {} jogadas antigas.", preenchidas);
+        return preenchidas;
+    }
+
+    // null com oponentes extras ou estado ilegível
+    private Long fingerprintDe(String estadoJson) {
+        try {
+            return JogadaService.fingerprint(objectMapper.readValue(estadoJson, EstadoDTO.class));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Prefixo das candidatas que cabe em lote-jogadas linhas (pelo menos uma partida,
+     * mesmo que ela sozinha passe do limite).
+     */
+    private List<Long> montarLote(List<Long> candidatas) {
+        Map<Long, Long> porPartida = new HashMap<>();
+        for (Object[] linha : jogadaRepository.contarPorPartida(candidatas)) {
+            porPartida.put((Long) linha[0], (Long) linha[1]);
+        }
+
+        List<Long> lote = new ArrayList<>();
+        long linhas = 0;
+        for (Long id : candidatas) {
+            long qtd = porPartida.getOrDefault(id, 0L);
+            if (!lote.isEmpty() && linhas + qtd > loteJogadas) break;
+            lote.add(id);
+            linhas += qtd;
+        }
+        return lote;
+    }
+
+    private List<SegmentoJogadas.Registro> carregar(List<Long> lote) {
+        List<Object[]> linhas = jogadaRepository.buscarColunasArquivo(lote);
+        List<SegmentoJogadas.Registro> registros = new ArrayList<>(linhas.size());
+        for (Object[] l : linhas) {
+            registros.add(new SegmentoJogadas.Registro(
+                    (Long) l[0], (Long) l[1], l[2] == null ? 0 : (Integer) l[2],
+                    (String) l[3], (String) l[4], (String) l[5], (String) l[6]));
+        }
+        return registros;
+    }
+
+    private void agregar(List<SegmentoJogadas.Registro> registros, Map<String, long[]> porDirecao,
+                         Map<ConsolidacaoJogadas.ChaveEstado, long[]> porEstado) {
+        for (SegmentoJogadas.Registro r : registros) {
+            String acao = r.acao() == null ? null : r.acao().trim().toUpperCase();
+            if (!DIRECOES.contains(acao)) continue;
+
+            boolean vitoria = "WIN".equalsIgnoreCase(r.resultado());
+            boolean derrota = "LOSE".equalsIgnoreCase(r.resultado());
+            long[] d = porDirecao.computeIfAbsent(acao, k -> new long[3]);
+            d[vitoria ? 0 : derrota ? 1 : 2]++;
+
+            // como no cache de estado, só jogadas com resultado de partidas 1 contra 1 contam por estado
+            if (!vitoria && !derrota) continue;
+            // estado ilegível: fica só o total da direção (a linha continua no segmento)
+            Long fingerprint = fingerprintDe(r.estadoJson());
+            if (fingerprint == null) continue;
+            long[] e = porEstado.computeIfAbsent(
+                    new ConsolidacaoJogadas.ChaveEstado(fingerprint, acao), k -> new long[2]);
+            e[vitoria ? 0 : 1]++;
+        }
+    }
+}
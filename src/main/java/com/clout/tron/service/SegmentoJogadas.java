@@ -0,0 +1,123 @@
+package com.clout.tron.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Segmento do arquivo frio de jogadas: um arquivo gzip por lote da retenção.
+ *
+ * Formato (DataOutputStream dentro do gzip):
+ *   int MAGICO, int VERSAO
+ *   por jogada: byte 1, long id, long partidaId, int turno, acao, resultado, tier, estado
+ *   byte 0 no fim
+ * Textos curtos são (boolean presente, UTF); o estado é (int bytes, UTF-8), porque em
+ * tabuleiros grandes passa do limite de 64 KB do writeUTF.
+ *
+ * Só depende do JDK, para ser lido pelo ExportarArquivoJogadas fora da aplicação.
+ */
+public final class SegmentoJogadas {
+
+    public static final String EXTENSAO = ".seg.gz";
+
+    private static final int MAGICO = 0x54524F4E; // "TRON"
+    private static final int VERSAO = 1;
+
+    private SegmentoJogadas() {
+    }
+
+    public record Registro(long id, long partidaId, int turno, String acao,
+                           String resultado, String tier, String estadoJson) {
+    }
+
+    /** jogadas-&lt;primeiro id&gt;-&lt;último id&gt;.seg.gz, em ordem de id ao listar o diretório */
+    public static String nome(long primeiroId, long ultimoId) {
+        return String.format("jogadas-%012d-%012d%s", primeiroId, ultimoId, EXTENSAO);
+    }
+
+    /**
+     * Grava num temporário, força o disco e só então renomeia: um segmento com o nome
+     * final está sempre completo, mesmo se o processo cair no meio.
+     */
+    public static void escrever(Path destino, List<Registro> registros) throws IOException {
+        Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+        try (FileOutputStream arquivo = new FileOutputStream(temporario.toFile())) {
+            BufferedOutputStream buffer = new BufferedOutputStream(arquivo, 1 << 16);
+            GZIPOutputStream gzip = new GZIPOutputStream(buffer);
+            DataOutputStream out = new DataOutputStream(gzip);
+            out.writeInt(MAGICO);
+            out.writeInt(VERSAO);
+            for (Registro r : registros) {
+                out.writeByte(1);
+                out.writeLong(r.id());
+                out.writeLong(r.partidaId());
+                out.writeInt(r.turno());
+                escreverTexto(out, r.acao());
+                escreverTexto(out, r.resultado());
+                escreverTexto(out, r.tier());
+                byte[] estado = r.estadoJson() == null ? new byte[0] : r.estadoJson().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(estado.length);
+                out.write(estado);
+            }
+            out.writeByte(0);
+            out.flush();
+            gzip.finish();
+            buffer.flush();
+            arquivo.getFD().sync();
+        }
+        Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Entrega as jogadas do segmento na ordem em que foram gravadas.
+     */
+    public static void ler(InputStream entrada, Consumer<Registro> destino) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(entrada), 1 << 16));
+        if (in.readInt() != MAGICO) throw new IOException("Não é um segmento de jogadas");
+        int versao = in.readInt();
+        if (versao != VERSAO) throw new IOException("Versão de segmento não suportada: " + versao);
+
+        while (true) {
+            byte marca;
+            try {
+                marca = in.readByte();
+            } catch (EOFException e) {
+                throw new IOException("Segmento truncado", e);
+            }
+            if (marca == 0) return;
+
+            long id = in.readLong();
+            long partidaId = in.readLong();
+            int turno = in.readInt();
+            String acao = lerTexto(in);
+            String resultado = lerTexto(in);
+            String tier = lerTexto(in);
+            byte[] estado = new byte[in.readInt()];
+            in.readFully(estado);
+            destino.accept(new Registro(id, partidaId, turno, acao, resultado, tier,
+                    estado.length == 0 ? null : new String(estado, StandardCharsets.UTF_8)));
+        }
+    }
+
+    private static void escreverTexto(DataOutputStream out, String texto) throws IOException {
+        out.writeBoolean(texto != null);
+        if (texto != null) out.writeUTF(texto);
+    }
+
+    private static String lerTexto(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,69 @@
+package com.clout.tron.service;
+
+import com.clout.tron.entity.AgregadoDirecao;
+import com.clout.tron.repository.AgregadoDirecaoRepository;
+import com.clout.tron.repository.ContadorAprendizadoRepository;
+import com.clout.tron.repository.JogadaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Semente do nó "historico" do aprendizado: os resultados que já estavam no banco antes
+ * dos contadores, gravados uma única vez.
+ *
+ * Quem consegue reservar a linha de corte lê jogada e agregado_direcao na mesma foto
+ * do banco e publica os totais por direção junto com o corte (maior id de jogada da foto).
+ * Os outros nós esperam o commit na reserva e só recebem o que foi gravado, então
+ * todos usam os mesmos valores. Jogadas acima do corte contam ao vivo, no fim da
+ * partida (ver AprendizadoService); as que estavam em aberto até o corte não entram.
+ */
+@Component
+@RequiredArgsConstructor
+public class SementeAprendizado {
+
+    private final ContadorAprendizadoRepository contadorRepository;
+    private final JogadaRepository jogadaRepository;
+    private final AgregadoDirecaoRepository agregadoDirecaoRepository;
+    private final TransporteAprendizado transporte;
+
+    /**
+     * Grava a semente se nenhum nó gravou ainda. Retorna false se outro nó já tinha gravado.
+     */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public boolean semear() {
+        if (contadorRepository.reservar(AprendizadoService.NO_HISTORICO, AprendizadoService.CHAVE_CORTE) == 0) {
+            return false;
+        }
+
+        // a partir daqui todas as leituras vêm da mesma foto: um lote da retenção ou está
+        // inteiro em jogada ou inteiro em agregado_direcao
+        Long maiorId = jogadaRepository.maiorId();
+        long corte = maiorId == null ? 0 : maiorId;
+
+        Map<String, long[]> semente = new HashMap<>();
+        for (Object[] linha : jogadaRepository.contarPorAcaoEResultado(corte)) {
+            String acao = AprendizadoService.normalizar((String) linha[0]);
+            if (acao == null) continue;
+            long[] c = semente.computeIfAbsent(AprendizadoService.chaveDirecao(acao), k -> new long[2]);
+            if ("WIN".equalsIgnoreCase((String) linha[1])) c[0] += (Long) linha[2];
+            else c[1] += (Long) linha[2];
+        }
+        for (AgregadoDirecao a : agregadoDirecaoRepository.findAll()) {
+            String acao = AprendizadoService.normalizar(a.getAcao());
+            if (acao == null) continue;
+            long[] c = semente.computeIfAbsent(AprendizadoService.chaveDirecao(acao), k -> new long[2]);
+            c[0] += a.getVitorias();
+            c[1] += a.getDerrotas();
+        }
+
+        // o corte vai na linha reservada (vitorias = id), na mesma transação da semente
+        semente.put(AprendizadoService.CHAVE_CORTE, new long[]{corte, 0});
+        transporte.publicar(AprendizadoService.NO_HISTORICO, semente, 1);
+        return true;
+    }
+}
@@ -0,0 +1,199 @@
+package com.clout.tron.service;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Cópia colunar e imutável do histórico (jogadas e partidas) para consultas analíticas.
+ *
+ * Cada coluna é um array primitivo indexado pela linha, então as agregações varrem memória
+ * contígua sem criar entidades nem tocar o banco. As cabeças das motos já vêm decodificadas
+ * do estadoJson. Valores ausentes usam -1.
+ */
+final class SnapshotAnalise {
+
+    static final byte RESULTADO_MID = 0;
+    static final byte RESULTADO_WIN = 1;
+    static final byte RESULTADO_LOSE = 2;
+
+    static final byte VENCEDOR_BOT = 0;
+    static final byte VENCEDOR_PLAYER = 1;
+
+    static final String[] DIRECOES = {"UP", "DOWN", "LEFT", "RIGHT"};
+
+    // ===== colunas de jogada =====
+    final int jogadas;
+    final long[] jogadaId;
+    final long[] partidaDaJogada;
+    final int[] turno;
+    final byte[] acao;       // índice em DIRECOES
+    final byte[] resultado;  // RESULTADO_*
+    final byte[] tier;       // ordinal de DecisaoIA.Tier
+    final short[] boardSize;
+    final short[] botX;
+    final short[] botY;
+    final short[] playerX;
+    final short[] playerY;
+
+    // ===== colunas de partida =====
+    final int partidas;
+    final long[] partidaId;
+    final byte[] vencedor;   // VENCEDOR_*
+    final int[] duracaoTurnos;
+    final long[] dataHora;   // epoch em segundos (UTC)
+
+    final Instant geradoEm;
+    final long duracaoMs;
+
+    private SnapshotAnalise(Construtor c, Instant geradoEm, long duracaoMs) {
+        this.jogadas = c.jogadas;
+        this.jogadaId = Arrays.copyOf(c.jogadaId, c.jogadas);
+        this.partidaDaJogada = Arrays.copyOf(c.partidaDaJogada, c.jogadas);
+        this.turno = Arrays.copyOf(c.turno, c.jogadas);
+        this.acao = Arrays.copyOf(c.acao, c.jogadas);
+        this.resultado = Arrays.copyOf(c.resultado, c.jogadas);
+        this.tier = Arrays.copyOf(c.tier, c.jogadas);
+        this.boardSize = Arrays.copyOf(c.boardSize, c.jogadas);
+        this.botX = Arrays.copyOf(c.botX, c.jogadas);
+        this.botY = Arrays.copyOf(c.botY, c.jogadas);
+        this.playerX = Arrays.copyOf(c.playerX, c.jogadas);
+        this.playerY = Arrays.copyOf(c.playerY, c.jogadas);
+
+        this.partidas = c.partidas;
+        this.partidaId = Arrays.copyOf(c.partidaId, c.partidas);
+        this.vencedor = Arrays.copyOf(c.vencedor, c.partidas);
+        this.duracaoTurnos = Arrays.copyOf(c.duracaoTurnos, c.partidas);
+        this.dataHora = Arrays.copyOf(c.dataHora, c.partidas);
+
+        this.geradoEm = geradoEm;
+        this.duracaoMs = duracaoMs;
+    }
+
+    static SnapshotAnalise vazio() {
+        return new Construtor().construir(Instant.EPOCH, 0);
+    }
+
+    static byte codificarDirecao(String direcao) {
+        if (direcao == null) return -1;
+        for (int i = 0; i < DIRECOES.length; i++) {
+            if (DIRECOES[i].equalsIgnoreCase(direcao)) return (byte) i;
+        }
+        return -1;
+    }
+
+    static byte codificarResultado(String resultado) {
+        if ("WIN".equalsIgnoreCase(resultado)) return RESULTADO_WIN;
+        if ("LOSE".equalsIgnoreCase(resultado)) return RESULTADO_LOSE;
+        if ("MID".equalsIgnoreCase(resultado)) return RESULTADO_MID;
+        return -1;
+    }
+
+    static byte codificarTier(String tier) {
+        if (tier == null) return -1;
+        try {
+            return (byte) DecisaoIA.Tier.valueOf(tier).ordinal();
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    static byte codificarVencedor(String vencedor) {
+        if ("BOT".equalsIgnoreCase(vencedor)) return VENCEDOR_BOT;
+        if ("PLAYER".equalsIgnoreCase(vencedor)) return VENCEDOR_PLAYER;
+        return -1;
+    }
+
+    /**
+     * Acumula linhas em arrays que crescem por dobra. Vive entre as atualizações (só a
+     * thread que atualiza mexe nele): cada snapshot publicado é uma cópia.
+     */
+    static final class Construtor {
+
+        private int jogadas;
+        private long[] jogadaId = new long[1024];
+        private long[] partidaDaJogada = new long[1024];
+        private int[] turno = new int[1024];
+        private byte[] acao = new byte[1024];
+        private byte[] resultado = new byte[1024];
+        private byte[] tier = new byte[1024];
+        private short[] boardSize = new short[1024];
+        private short[] botX = new short[1024];
+        private short[] botY = new short[1024];
+        private short[] playerX = new short[1024];
+        private short[] playerY = new short[1024];
+
+        private int partidas;
+        private long[] partidaId = new long[256];
+        private byte[] vencedor = new byte[256];
+        private int[] duracaoTurnos = new int[256];
+        private long[] dataHora = new long[256];
+
+        void adicionarJogada(long id, long partida, int t, byte a, byte r, byte ti,
+                             int tamanho, int bx, int by, int px, int py) {
+            if (jogadas == jogadaId.length) {
+                int cap = jogadas * 2;
+                jogadaId = Arrays.copyOf(jogadaId, cap);
+                partidaDaJogada = Arrays.copyOf(partidaDaJogada, cap);
+                turno = Arrays.copyOf(turno, cap);
+                acao = Arrays.copyOf(acao, cap);
+                resultado = Arrays.copyOf(resultado, cap);
+                tier = Arrays.copyOf(tier, cap);
+                boardSize = Arrays.copyOf(boardSize, cap);
+                botX = Arrays.copyOf(botX, cap);
+                botY = Arrays.copyOf(botY, cap);
+                playerX = Arrays.copyOf(playerX, cap);
+                playerY = Arrays.copyOf(playerY, cap);
+            }
+            int i = jogadas++;
+            jogadaId[i] = id;
+            partidaDaJogada[i] = partida;
+            turno[i] = t;
+            acao[i] = a;
+            resultado[i] = r;
+            tier[i] = ti;
+            boardSize[i] = (short) tamanho;
+            botX[i] = (short) bx;
+            botY[i] = (short) by;
+            playerX[i] = (short) px;
+            playerY[i] = (short) py;
+        }
+
+        void adicionarPartida(long id, byte v, int duracao, long epochSegundos) {
+            if (partidas == partidaId.length) {
+                int cap = partidas * 2;
+                partidaId = Arrays.copyOf(partidaId, cap);
+                vencedor = Arrays.copyOf(vencedor, cap);
+                duracaoTurnos = Arrays.copyOf(duracaoTurnos, cap);
+                dataHora = Arrays.copyOf(dataHora, cap);
+            }
+            int i = partidas++;
+            partidaId[i] = id;
+            vencedor[i] = v;
+            duracaoTurnos[i] = duracao;
+            dataHora[i] = epochSegundos;
+        }
+
+        int partidas() {
+            return partidas;
+        }
+
+        void atualizarPartida(int linha, byte v, int duracao) {
+            vencedor[linha] = v;
+            duracaoTurnos[linha] = duracao;
+        }
+
+        /** Linha da jogada pelo id (as jogadas entram em ordem de id), ou -1. */
+        int linhaDaJogada(long id) {
+            int i = Arrays.binarySearch(jogadaId, 0, jogadas, id);
+            return i >= 0 ? i : -1;
+        }
+
+        void atualizarResultado(int linha, byte r) {
+            resultado[linha] = r;
+        }
+
+        SnapshotAnalise construir(Instant geradoEm, long duracaoMs) {
+            return new SnapshotAnalise(this, geradoEm, duracaoMs);
+        }
+    }
+}
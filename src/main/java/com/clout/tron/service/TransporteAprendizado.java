@@ -0,0 +1,27 @@
+package com.clout.tron.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Meio por onde os nós trocam os contadores de aprendizado.
+ *
+ * Os contadores são G-counters por nó: cada nó publica só os próprios valores
+ * (absolutos, nunca incrementos) e quem recebe faz merge por máximo. Por isso
+ * reenvio, reordenação e leitura repetida são inofensivos.
+ */
+public interface TransporteAprendizado {
+
+    record Delta(String no, String chave, long vitorias, long derrotas, long versao) {}
+
+    /**
+     * Publica os valores atuais das chaves alteradas do nó ({chave -> [vitórias, derrotas]}).
+     */
+    void publicar(String no, Map<String, long[]> contadores, long versao);
+
+    /**
+     * Devolve o que os outros nós publicaram depois das versões já conhecidas.
+     * Com noIgnorado == null inclui também as linhas do próprio nó (restauração).
+     */
+    List<Delta> receber(String noIgnorado, Map<String, Long> versoesConhecidas);
+}
@@ -0,0 +1,60 @@
+package com.clout.tron.service;
+
+import com.clout.tron.entity.ContadorAprendizado;
+import com.clout.tron.repository.ContadorAprendizadoRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transporte pela tabela compartilhada aprendizado_contador: uma linha por (nó, chave).
+ * Como cada nó só escreve as próprias linhas, não há disputa de escrita entre instâncias.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransporteAprendizadoTabela implements TransporteAprendizado {
+
+    private final ContadorAprendizadoRepository repository;
+
+    @Override
+    @Transactional
+    public void publicar(String no, Map<String, long[]> contadores, long versao) {
+        List<ContadorAprendizado> linhas = new ArrayList<>(contadores.size());
+        for (Map.Entry<String, long[]> e : contadores.entrySet()) {
+            ContadorAprendizado c = repository.findByNoAndChave(no, e.getKey())
+                    .orElseGet(() -> {
+                        ContadorAprendizado novo = new ContadorAprendizado();
+                        novo.setNo(no);
+                        novo.setChave(e.getKey());
+                        return novo;
+                    });
+            // G-counter: nunca regride, mesmo que uma publicação antiga chegue atrasada
+            c.setVitorias(Math.max(c.getVitorias(), e.getValue()[0]));
+            c.setDerrotas(Math.max(c.getDerrotas(), e.getValue()[1]));
+            c.setVersao(Math.max(c.getVersao(), versao));
+            linhas.add(c);
+        }
+        repository.saveAll(linhas);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Delta> receber(String noIgnorado, Map<String, Long> versoesConhecidas) {
+        List<Delta> deltas = new ArrayList<>();
+        for (Object[] linha : repository.maioresVersoesPorNo()) {
+            String no = (String) linha[0];
+            long maior = (Long) linha[1];
+            long conhecida = versoesConhecidas.getOrDefault(no, 0L);
+            if (no.equals(noIgnorado) || maior <= conhecida) continue;
+
+            for (ContadorAprendizado c : repository.findByNoAndVersaoGreaterThan(no, conhecida)) {
+                deltas.add(new Delta(c.getNo(), c.getChave(), c.getVitorias(), c.getDerrotas(), c.getVersao()));
+            }
+        }
+        return deltas;
+    }
+}
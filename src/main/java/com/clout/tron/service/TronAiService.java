@@ -3,15 +3,23 @@ package com.clout.tron.service;
 import com.clout.tron.ai.GeminiService;
 import com.clout.tron.ai.GptService;
 import com.clout.tron.dto.EstadoDTO;
+import com.clout.tron.engine.FingerprintEstado;
+import com.clout.tron.engine.LivroAberturas;
+import com.clout.tron.engine.PontuacaoLocal;
+import com.clout.tron.engine.PreenchimentoEspacoSolver;
+import com.clout.tron.engine.RedePolitica;
+import com.clout.tron.engine.TabuleiroTrabalho;
 import com.clout.tron.entity.Jogada;
 import com.clout.tron.repository.JogadaRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,33 +31,95 @@ public class TronAiService {
     private final GptService gptService;
     private final JogadaRepository jogadaRepository;
     private final ObjectMapper objectMapper;
+    private final PreenchimentoEspacoSolver preenchimentoEspacoSolver;
+    private final LivroAberturas livroAberturas;
+    private final RedePolitica redePolitica;
+    private final OrcamentoLlm orcamentoLlm;
+    private final AprendizadoService aprendizadoService;
+    private final PontuacaoLocal pontuacaoLocal;
+    private final ConectividadePartidaService conectividadePartidaService;
+    private final RetencaoJogadasService retencaoJogadasService;
+
+    @Value("${tron.engine.politica.confianca-minima:0.6}")
+    private double confiancaMinimaPolitica;
+
+    @Value("${tron.engine.triagem.margem:250}")
+    private double margemTriagem;
 
     private static final List<String> VALID_DIRECTIONS =
             List.of("UP", "DOWN", "LEFT", "RIGHT");
 
     public String decidirMovimento(EstadoDTO estado) {
-        // 1) histórico permanente do banco → RL leve global
-        List<Jogada> jogadasRecentes = jogadaRepository.findTop300ByOrderByIdDesc();
-        Map<String, Double> scoreAprendizado = calcularScoreAprendizadoPorAcao(jogadasRecentes);
+        return decidir(estado, () -> false).direcao();
+    }
+
+    public DecisaoIA decidir(EstadoDTO estado, BooleanSupplier obsoleta) {
+        return decidir(null, estado, obsoleta);
+    }
+
+    /**
+     * Decide o movimento e informa qual camada respondeu. Antes de cada chamada
+     * de LLM consulta "obsoleta": se um turno mais novo da partida já chegou, a
+     * resposta será descartada pelo cliente e o provedor não é chamado (vai
+     * direto para o fallback local).
+     *
+     * Com partidaId, regiões e separação das motos vêm da conectividade incremental
+     * da partida em vez de flood fills por decisão.
+     */
+    public DecisaoIA decidir(Long partidaId, EstadoDTO estado, BooleanSupplier obsoleta) {
+        // 0) ABERTURA: estados iniciais já resolvidos offline
+        String viaLivro = decidirPorLivroAberturas(estado);
+        if (viaLivro != null) {
+            log.debug("Decisão obtida via livro de aberturas: {}", viaLivro);
+            return new DecisaoIA(viaLivro, DecisaoIA.Tier.LIVRO);
+        }
+
+        // null em partidas com oponentes extras ou pedidos fora de ordem
+        ConectividadePartidaService.Consulta conectividade =
+                conectividadePartidaService.consultar(partidaId, estado);
+
+        // 0.1) FIM DE JOGO: motos em regiões separadas → só importa preencher o próprio espaço
+        String viaEndgame = decidirPorPreenchimento(estado, conectividade);
+        if (viaEndgame != null) {
+            log.debug("Motos separadas. Decisão do solver de preenchimento: {}", viaEndgame);
+            return new DecisaoIA(viaEndgame, DecisaoIA.Tier.ENDGAME);
+        }
+
+        // 1) RL leve global: contadores replicados entre instâncias, lidos da memória
+        Map<String, Double> scoreAprendizado = aprendizadoService.scoresPorAcao(estado);
 
         String estadoJson;
         try {
             estadoJson = objectMapper.writeValueAsString(estado);
         } catch (Exception e) {
             log.error("Erro ao serializar estado. Usando fallback direto.", e);
-            return decidirMovimentoFallbackSuperSobrevivencia(estado, scoreAprendizado);
+            return fallback(estado, calcularScoresLocais(estado, scoreAprendizado, conectividade));
         }
 
-        String resumoAprendizado = montarResumoHistorico(jogadasRecentes, scoreAprendizado);
-
         // 2) CACHE: tenta reaproveitar decisão em estados idênticos
         String viaCache = decidirPorCache(estado, estadoJson);
         if (viaCache != null) {
             log.debug("Decisão obtida via cache de estado: {}", viaCache);
-            return viaCache;
+            return new DecisaoIA(viaCache, DecisaoIA.Tier.CACHE);
+        }
+
+        // 2.1) POLÍTICA LOCAL: rede treinada offline, inferência em CPU sem chamada remota
+        String viaPolitica = decidirPorPolitica(estado);
+        if (viaPolitica != null) {
+            log.debug("Decisão obtida via rede de política: {}", viaPolitica);
+            return new DecisaoIA(viaPolitica, DecisaoIA.Tier.POLITICA);
+        }
+
+        // 2.2) TRIAGEM: só escala para LLM quando o motor local está em dúvida
+        Map<String, Double> scoresLocais = calcularScoresLocais(estado, scoreAprendizado, conectividade);
+        if (!motorLocalEmDuvida(scoresLocais)) {
+            String dir = decidirPorScoresLocais(estado, scoresLocais);
+            log.debug("Triagem: decisão local clara ({}). LLM dispensado.", dir);
+            return new DecisaoIA(dir, DecisaoIA.Tier.TRIAGEM);
         }
 
         // 3) Prompt único (serve tanto pro Gemini quanto pro GPT)
+        String resumoAprendizado = montarResumoHistorico(scoreAprendizado);
         String prompt = """
 Você é a IA controlando a moto ROSA no jogo TRON.
 
@@ -79,6 +149,9 @@ ESTRATÉGIA:
 APRENDIZADO (calculado no backend a partir do banco de dados):
 %s
 
+TERRITÓRIO (células que cada moto alcança antes da outra, calculado no backend):
+%s
+
 ESTADO ATUAL DO JOGO (JSON):
 %s
 
@@ -87,17 +160,27 @@ IMPORTANTE:
 - NÃO escreva comentários, explicações ou frases extras.
 
 Qual é o movimento mais agressivo e inteligente agora (UP, DOWN, LEFT ou RIGHT)?
-""".formatted(resumoAprendizado, estadoJson);
+""".formatted(resumoAprendizado, montarResumoTerritorio(conectividade), estadoJson);
 
         // 4) motor híbrido SEM cooldown: Gemini → (se falhar) GPT → (se falhar) fallback
 
+        if (obsoleta.getAsBoolean()) {
+            log.debug("Turno {} ficou obsoleto. Pulando LLMs.", estado.getTurno());
+            return fallback(estado, scoresLocais);
+        }
+
+        if (!orcamentoLlm.tentarConsumir()) {
+            log.debug("Orçamento global de chamadas LLM esgotado. Decidindo localmente.");
+            return new DecisaoIA(decidirPorScoresLocais(estado, scoresLocais), DecisaoIA.Tier.SEM_ORCAMENTO);
+        }
+
         // 4.1 tenta Gemini
         try {
             String respostaGemini = geminiService.gerarMovimento(prompt);
             String dir = normalizarDirecao(respostaGemini);
             if (dir != null && isDirecaoSeguraProfunda(estado, dir, 8)) {
                 log.debug("Usando direção do Gemini: {}", dir);
-                return dir;
+                return new DecisaoIA(dir, DecisaoIA.Tier.GEMINI);
             } else if (dir != null) {
                 log.warn("Direção do Gemini inválida ou não segura (mesmo com lookahead): {}. Indo para GPT.", dir);
             }
@@ -107,13 +190,23 @@ Qual é o movimento mais agressivo e inteligente agora (UP, DOWN, LEFT ou RIGHT)
             log.error("Erro genérico chamando Gemini.", e);
         }
 
+        if (obsoleta.getAsBoolean()) {
+            log.debug("Turno {} ficou obsoleto. Pulando GPT.", estado.getTurno());
+            return fallback(estado, scoresLocais);
+        }
+
+        if (!orcamentoLlm.tentarConsumir()) {
+            log.debug("Orçamento global de chamadas LLM esgotado. Pulando GPT.");
+            return new DecisaoIA(decidirPorScoresLocais(estado, scoresLocais), DecisaoIA.Tier.SEM_ORCAMENTO);
+        }
+
         // 4.2 tenta GPT
         try {
             String respostaGpt = gptService.gerarMovimento(prompt);
             String dir = normalizarDirecao(respostaGpt);
             if (dir != null && isDirecaoSeguraProfunda(estado, dir, 8)) {
                 log.debug("Usando direção do GPT: {}", dir);
-                return dir;
+                return new DecisaoIA(dir, DecisaoIA.Tier.GPT);
             } else if (dir != null) {
                 log.warn("Direção do GPT inválida ou não segura (mesmo com lookahead): {}. Indo para fallback local.", dir);
             }
@@ -122,26 +215,105 @@ Qual é o movimento mais agressivo e inteligente agora (UP, DOWN, LEFT ou RIGHT)
         }
 
         // 5) se nenhum modelo deu uma jogada realmente boa → fallback local (super sobrevivência)
-        return decidirMovimentoFallbackSuperSobrevivencia(estado, scoreAprendizado);
+        return fallback(estado, scoresLocais);
     }
 
-    // ========================= CACHE DE ESTADO =========================
+    /**
+     * O motor local está em dúvida quando há pelo menos duas direções seguras e
+     * as duas melhores estão a menos de "margem" pontos uma da outra. Com uma
+     * só direção viva (ou nenhuma) ou uma dominante, o LLM não muda nada.
+     */
+    private boolean motorLocalEmDuvida(Map<String, Double> scoresLocais) {
+        if (scoresLocais.size() < 2) return false;
 
-    private String decidirPorCache(EstadoDTO estado, String estadoJson) {
-        List<Jogada> jogadasMesmoEstado =
-                jogadaRepository.findTop50ByEstadoJsonOrderByIdDesc(estadoJson);
+        List<Double> ordenados = new ArrayList<>(scoresLocais.values());
+        ordenados.sort(Comparator.reverseOrder());
+        return ordenados.get(0) - ordenados.get(1) < margemTriagem;
+    }
+
+    private DecisaoIA fallback(EstadoDTO estado, Map<String, Double> scoresLocais) {
+        String dir = decidirPorScoresLocais(estado, scoresLocais);
+        return new DecisaoIA(dir, DecisaoIA.Tier.FALLBACK);
+    }
 
-        if (jogadasMesmoEstado == null || jogadasMesmoEstado.isEmpty()) {
+    // ========================= LIVRO DE ABERTURAS =========================
+
+    private String decidirPorLivroAberturas(EstadoDTO estado) {
+        // o livro foi gerado para 1 contra 1, num tabuleiro e até um turno fixos
+        if (!livroAberturas.cobre(estado.getBoardSize(), estado.getTurno()) || temOponentesExtras(estado)) {
             return null;
         }
 
-        Map<String, Long> winsPorAcao = jogadasMesmoEstado.stream()
-                .filter(j -> "WIN".equalsIgnoreCase(j.getResultado()))
-                .collect(Collectors.groupingBy(Jogada::getAcao, Collectors.counting()));
+        long fingerprint = FingerprintEstado.calcular(tabuleiro(estado),
+                estado.getPlayerX(), estado.getPlayerY(),
+                estado.getBotX(), estado.getBotY(), estado.getBotDirection());
+
+        String dir = livroAberturas.consultar(fingerprint);
+        // o livro não substitui a checagem de colisão imediata
+        if (dir != null && isDirecaoSeguraImediata(estado, dir)) {
+            return dir;
+        }
+        return null;
+    }
+
+    // ========================= FIM DE JOGO (REGIÕES SEPARADAS) =========================
+
+    /**
+     * Se nenhuma cabeça adversária é alcançável a partir do bot, a partida virou
+     * um problema de preenchimento de espaço: não consulta banco nem LLM.
+     * Retorna null enquanto as motos ainda disputam a mesma região.
+     */
+    private String decidirPorPreenchimento(EstadoDTO estado, ConectividadePartidaService.Consulta conectividade) {
+        if (conectividade != null) {
+            if (!conectividade.separados()) return null;
+        } else {
+            int[] cabecas = cabecasOponentes(estado);
+            if (pontuacaoLocal.disputaEspaco(tabuleiro(estado), estado.getBotX(), estado.getBotY(),
+                    cabecas, cabecas.length)) {
+                return null;
+            }
+        }
+
+        String dir = preenchimentoEspacoSolver.melhorDirecao(tabuleiro(estado),
+                estado.getBotX(), estado.getBotY(), indiceDirecao(estado.getBotDirection()));
+        if (dir != null) {
+            return dir;
+        }
+
+        // sem nenhuma saída: deixa o fallback escolher uma direção legal, ainda sem LLM
+        return decidirMovimentoFallbackSuperSobrevivencia(estado, Map.of());
+    }
+
+    // ========================= CACHE DE ESTADO =========================
+
+    /**
+     * Jogadas com o mesmo estado mais os totais desse estado que a retenção já tirou da
+     * tabela jogada; as duas fontes usam a mesma chave (fingerprint, que ignora o turno).
+     * Jogadas gravadas antes da coluna fingerprint entram pelo estado_json exato até a
+     * retenção terminar de preencher a coluna.
+     */
+    private String decidirPorCache(EstadoDTO estado, String estadoJson) {
+        // com oponentes extras o fingerprint não distingue os estados: sem cache
+        Long fingerprint = JogadaService.fingerprint(estado);
+        if (fingerprint == null) return null;
+
+        // jogadas recentes e arquivadas (agregado_estado) do mesmo estado, já somadas no banco
+        List<Object[]> linhas = jogadaRepository.contarResultadosPorFingerprint(fingerprint);
+
+        Map<String, Long> winsPorAcao = new HashMap<>();
+        Map<String, Long> lossPorAcao = new HashMap<>();
+        for (Object[] linha : linhas) {
+            winsPorAcao.put((String) linha[0], ((Number) linha[1]).longValue());
+            lossPorAcao.put((String) linha[0], ((Number) linha[2]).longValue());
+        }
 
-        Map<String, Long> lossPorAcao = jogadasMesmoEstado.stream()
-                .filter(j -> "LOSE".equalsIgnoreCase(j.getResultado()))
-                .collect(Collectors.groupingBy(Jogada::getAcao, Collectors.counting()));
+        if (!retencaoJogadasService.fingerprintsPreenchidos()) {
+            for (Jogada j : jogadaRepository.findTop50ByEstadoJsonAndFingerprintIsNullOrderByIdDesc(estadoJson)) {
+                if ("WIN".equalsIgnoreCase(j.getResultado())) winsPorAcao.merge(j.getAcao(), 1L, Long::sum);
+                else if ("LOSE".equalsIgnoreCase(j.getResultado())) lossPorAcao.merge(j.getAcao(), 1L, Long::sum);
+            }
+        }
+        if (winsPorAcao.isEmpty() && lossPorAcao.isEmpty()) return null;
 
         String melhorAcao = null;
         double melhorScore = Double.NEGATIVE_INFINITY;
@@ -160,6 +332,35 @@ Qual é o movimento mais agressivo e inteligente agora (UP, DOWN, LEFT ou RIGHT)
         return melhorAcao;
     }
 
+    // ========================= POLÍTICA LOCAL (REDE NEURAL) =========================
+
+    /**
+     * Só responde quando a rede está confiante e a direção passa no lookahead;
+     * caso contrário devolve null e a decisão segue para os LLMs.
+     */
+    private String decidirPorPolitica(EstadoDTO estado) {
+        // a rede foi treinada em partidas 1 contra 1
+        if (!redePolitica.disponivel() || temOponentesExtras(estado)) return null;
+
+        float[] saida = new float[RedePolitica.SAIDAS];
+        redePolitica.avaliar(tabuleiro(estado), estado.getBotX(), estado.getBotY(),
+                estado.getPlayerX(), estado.getPlayerY(), estado.getBotDirection(), saida);
+
+        String melhor = null;
+        float melhorProb = -1f;
+        for (int d = 0; d < VALID_DIRECTIONS.size(); d++) {
+            String dir = VALID_DIRECTIONS.get(d);
+            if (isOpposite(dir, estado.getBotDirection())) continue;
+            if (saida[d] > melhorProb) {
+                melhorProb = saida[d];
+                melhor = dir;
+            }
+        }
+
+        if (melhor == null || melhorProb < confiancaMinimaPolitica) return null;
+        return isDirecaoSeguraProfunda(estado, melhor, 8) ? melhor : null;
+    }
+
     private String normalizarDirecao(String raw) {
         if (raw == null) return null;
         String dir = raw.trim().toUpperCase();
@@ -178,47 +379,15 @@ Qual é o movimento mais agressivo e inteligente agora (UP, DOWN, LEFT ou RIGHT)
                (a.equals("RIGHT") && b.equals("LEFT"));
     }
 
-    private boolean[][] montarMatrizOcupacao(EstadoDTO estado) {
-        int n = estado.getBoardSize();
-        boolean[][] ocupado = new boolean[n][n];
-
-        if (estado.getOccupied() != null) {
-            for (EstadoDTO.Posicao p : estado.getOccupied()) {
-                if (p.getX() >= 0 && p.getX() < n && p.getY() >= 0 && p.getY() < n) {
-                    ocupado[p.getY()][p.getX()] = true;
-                }
-            }
-        }
-        return ocupado;
-    }
-
     private boolean isDirecaoSeguraImediata(EstadoDTO estado, String dir) {
-        int n = estado.getBoardSize();
-        boolean[][] ocupado = montarMatrizOcupacao(estado);
-
-        int bx = estado.getBotX();
-        int by = estado.getBotY();
-        String currentDir = estado.getBotDirection();
-
-        if (isOpposite(dir, currentDir)) {
+        if (isOpposite(dir, estado.getBotDirection())) {
             return false;
         }
 
-        int nx = bx;
-        int ny = by;
-
-        switch (dir) {
-            case "UP" -> ny--;
-            case "DOWN" -> ny++;
-            case "LEFT" -> nx--;
-            case "RIGHT" -> nx++;
-        }
-
-        if (nx < 0 || nx >= n || ny < 0 || ny >= n) {
-            return false;
-        }
-
-        return !ocupado[ny][nx];
+        int d = indiceDirecao(dir);
+        if (d < 0) return false;
+        return tabuleiro(estado).livre(estado.getBotX() + TabuleiroTrabalho.dx(d),
+                estado.getBotY() + TabuleiroTrabalho.dy(d));
     }
 
     /**
@@ -227,91 +396,49 @@ Qual é o movimento mais agressivo e inteligente agora (UP, DOWN, LEFT ou RIGHT)
      */
     private boolean isDirecaoSeguraProfunda(EstadoDTO estado, String dir, int depth) {
         if (!isDirecaoSeguraImediata(estado, dir)) return false;
+        return PontuacaoLocal.seguraProfunda(tabuleiro(estado),
+                estado.getBotX(), estado.getBotY(), indiceDirecao(dir), depth);
+    }
 
-        int n = estado.getBoardSize();
-        boolean[][] ocupado = montarMatrizOcupacao(estado);
-
-        int x = estado.getBotX();
-        int y = estado.getBotY();
-        String atualDir = dir;
-
-        // aplica o primeiro passo na direção sugerida
-        switch (atualDir) {
-            case "UP" -> y--;
-            case "DOWN" -> y++;
-            case "LEFT" -> x--;
-            case "RIGHT" -> x++;
-        }
-
-        if (x < 0 || x >= n || y < 0 || y >= n) return false;
-        if (ocupado[y][x]) return false;
-        ocupado[y][x] = true;
-
-        int survived = 0;
-
-        for (int step = 1; step < depth; step++) {
-            // tenta continuar ou virar sem ré
-            List<String> tentativas = new ArrayList<>();
-            tentativas.add(atualDir);
-            if (atualDir.equals("UP") || atualDir.equals("DOWN")) {
-                tentativas.add("LEFT");
-                tentativas.add("RIGHT");
-            } else {
-                tentativas.add("UP");
-                tentativas.add("DOWN");
-            }
-
-            boolean moveFeito = false;
-            for (String cand : tentativas) {
-                if (isOpposite(cand, atualDir)) continue;
+    // ========================= TABULEIRO DE TRABALHO =========================
 
-                int nx = x;
-                int ny = y;
-                switch (cand) {
-                    case "UP" -> ny--;
-                    case "DOWN" -> ny++;
-                    case "LEFT" -> nx--;
-                    case "RIGHT" -> nx++;
+    /**
+     * Tabuleiro da thread carregado com as ocupadas do estado. Helpers chamados na
+     * mesma decisão reaproveitam a carga (o estado é identificado pela referência).
+     */
+    private TabuleiroTrabalho tabuleiro(EstadoDTO estado) {
+        TabuleiroTrabalho t = TabuleiroTrabalho.daThread();
+        if (t.dono() != estado) {
+            t.iniciar(estado.getBoardSize(), estado);
+            if (estado.getOccupied() != null) {
+                for (EstadoDTO.Posicao p : estado.getOccupied()) {
+                    t.ocupar(p.getX(), p.getY());
                 }
-
-                if (nx < 0 || nx >= n || ny < 0 || ny >= n) continue;
-                if (ocupado[ny][nx]) continue;
-
-                x = nx;
-                y = ny;
-                atualDir = cand;
-                ocupado[ny][nx] = true;
-                survived++;
-                moveFeito = true;
-                break;
             }
-
-            if (!moveFeito) break;
         }
-
-        // se não aguenta nem metade dos passos de lookahead, consideramos ruim
-        return survived >= Math.max(1, depth / 2);
+        return t;
     }
 
-    // ========================= APRENDIZADO (RL LEVE GLOBAL) =========================
-
-    private Map<String, Double> calcularScoreAprendizadoPorAcao(List<Jogada> jogadas) {
-        Map<String, Long> winsPorAcao = jogadas.stream()
-                .filter(j -> "WIN".equalsIgnoreCase(j.getResultado()))
-                .collect(Collectors.groupingBy(Jogada::getAcao, Collectors.counting()));
-
-        Map<String, Long> lossPorAcao = jogadas.stream()
-                .filter(j -> "LOSE".equalsIgnoreCase(j.getResultado()))
-                .collect(Collectors.groupingBy(Jogada::getAcao, Collectors.counting()));
+    private boolean temOponentesExtras(EstadoDTO estado) {
+        return estado.getOponentes() != null && !estado.getOponentes().isEmpty();
+    }
 
-        Map<String, Double> score = new HashMap<>();
-        for (String dir : VALID_DIRECTIONS) {
-            long w = winsPorAcao.getOrDefault(dir, 0L);
-            long l = lossPorAcao.getOrDefault(dir, 0L);
-            double s = (double) (w - l) / (w + l + 1);
-            score.put(dir, s);
+    /**
+     * Índices (y * n + x) das cabeças adversárias: o jogador e os oponentes extras.
+     */
+    private int[] cabecasOponentes(EstadoDTO estado) {
+        int n = estado.getBoardSize();
+        List<EstadoDTO.Posicao> extras = temOponentesExtras(estado) ? estado.getOponentes() : List.of();
+        int[] cabecas = new int[1 + extras.size()];
+        cabecas[0] = estado.getPlayerY() * n + estado.getPlayerX();
+        for (int i = 0; i < extras.size(); i++) {
+            cabecas[i + 1] = extras.get(i).getY() * n + extras.get(i).getX();
         }
-        return score;
+        return cabecas;
+    }
+
+    private int indiceDirecao(String dir) {
+        return VALID_DIRECTIONS.indexOf(dir);
     }
 
     // ========================= FALLBACK LOCAL SUPER SOBREVIVÊNCIA =========================
@@ -323,42 +450,42 @@ Qual é o movimento mais agressivo e inteligente agora (UP, DOWN, LEFT ou RIGHT)
      * - só se estiver TUDO muito ruim ele pega uma direção "legal" qualquer.
      */
     private String decidirMovimentoFallbackSuperSobrevivencia(EstadoDTO estado, Map<String, Double> scoreAprendizado) {
-        int n = estado.getBoardSize();
-        boolean[][] ocupado = montarMatrizOcupacao(estado);
+        return decidirPorScoresLocais(estado, calcularScoresLocais(estado, scoreAprendizado, null));
+    }
 
-        int bx = estado.getBotX();
-        int by = estado.getBotY();
-        String currentDir = estado.getBotDirection();
+    /**
+     * Score local de cada direção segura: sobrevivência simulada (até 20 passos),
+     * espaço e aprendizado, nessa ordem de peso. Com a conectividade da partida o espaço
+     * é o território de cada direção; sem ela, a área livre.
+     */
+    private Map<String, Double> calcularScoresLocais(EstadoDTO estado, Map<String, Double> scoreAprendizado,
+                                                     ConectividadePartidaService.Consulta conectividade) {
+        int[] cabecas = cabecasOponentes(estado);
+        double[] base = new double[4];
+        pontuacaoLocal.pontuar(tabuleiro(estado), estado.getBotX(), estado.getBotY(),
+                indiceDirecao(estado.getBotDirection()), cabecas, cabecas.length,
+                conectividade == null ? null : conectividade.areaPorDirecao(),
+                conectividade == null ? null : conectividade.territorioPorDirecao(), base);
 
         Map<String, Double> scorePorDirecao = new HashMap<>();
 
-        for (String dir : VALID_DIRECTIONS) {
-            if (isOpposite(dir, currentDir)) continue;
-            if (!isDirecaoSeguraImediata(estado, dir)) continue;
-
-            int nx = bx;
-            int ny = by;
-            switch (dir) {
-                case "UP" -> ny--;
-                case "DOWN" -> ny++;
-                case "LEFT" -> nx--;
-                case "RIGHT" -> nx++;
-            }
-
-            // area livre a partir do próximo passo
-            int area = floodFillArea(nx, ny, ocupado);
+        for (int d = 0; d < VALID_DIRECTIONS.size(); d++) {
+            if (Double.isNaN(base[d])) continue; // ré, parede ou rastro
+            String dir = VALID_DIRECTIONS.get(d);
             double learned = scoreAprendizado.getOrDefault(dir, 0.0);
 
-            // quantos passos ele consegue sobreviver seguindo essa direção e variações
-            int survivalSteps = simularPassosAteMorrer(nx, ny, dir, ocupado, 20);
+            // sobrevivência (até 20 passos) e espaço vêm do motor; histórico é o terceiro critério
+            scorePorDirecao.put(dir, base[d] + learned * 10.0);
+        }
 
-            // score focado em sobreviver MUITO
-            double score = survivalSteps * 1000.0    // prioridade máxima: não morrer rápido
-                         + area * 5.0               // espaço conta bastante
-                         + learned * 10.0;          // histórico ajuda, mas é terceiro critério
+        return scorePorDirecao;
+    }
 
-            scorePorDirecao.put(dir, score);
-        }
+    private String decidirPorScoresLocais(EstadoDTO estado, Map<String, Double> scorePorDirecao) {
+        int n = estado.getBoardSize();
+        int bx = estado.getBotX();
+        int by = estado.getBotY();
+        String currentDir = estado.getBotDirection();
 
         if (scorePorDirecao.isEmpty()) {
             // nenhuma direção 100% segura → ainda tentamos alguma direção "legal" (sem sair da grade)
@@ -401,114 +528,33 @@ Qual é o movimento mais agressivo e inteligente agora (UP, DOWN, LEFT ou RIGHT)
         return escolhido;
     }
 
-    /**
-     * Simula até "depth" passos à frente e retorna quantos passos conseguiu
-     * dar antes de morrer (bateu na parede ou rastro).
-     */
-    private int simularPassosAteMorrer(int startX, int startY, String dirInicial, boolean[][] ocupadoOriginal, int depth) {
-        int n = ocupadoOriginal.length;
-
-        boolean[][] ocupado = new boolean[n][n];
-        for (int y = 0; y < n; y++) {
-            System.arraycopy(ocupadoOriginal[y], 0, ocupado[y], 0, n);
-        }
-
-        int x = startX;
-        int y = startY;
-        String dir = dirInicial;
-
-        if (x < 0 || x >= n || y < 0 || y >= n) return 0;
-        if (ocupado[y][x]) return 0;
-        ocupado[y][x] = true;
-
-        int survived = 0;
-
-        for (int step = 0; step < depth; step++) {
-            List<String> tentativas = new ArrayList<>();
-            tentativas.add(dir);
-            if (dir.equals("UP") || dir.equals("DOWN")) {
-                tentativas.add("LEFT");
-                tentativas.add("RIGHT");
-            } else {
-                tentativas.add("UP");
-                tentativas.add("DOWN");
-            }
-
-            boolean moveFeito = false;
-            for (String cand : tentativas) {
-                if (isOpposite(cand, dir)) continue;
-
-                int nx = x;
-                int ny = y;
-
-                switch (cand) {
-                    case "UP" -> ny--;
-                    case "DOWN" -> ny++;
-                    case "LEFT" -> nx--;
-                    case "RIGHT" -> nx++;
-                }
-
-                if (nx < 0 || nx >= n || ny < 0 || ny >= n) continue;
-                if (ocupado[ny][nx]) continue;
-
-                x = nx;
-                y = ny;
-                dir = cand;
-                ocupado[ny][nx] = true;
-                survived++;
-                moveFeito = true;
-                break;
-            }
-
-            if (!moveFeito) break;
+    private String montarResumoTerritorio(ConectividadePartidaService.Consulta conectividade) {
+        if (conectividade == null) return "Não disponível.";
+        StringBuilder sb = new StringBuilder();
+        sb.append("Agora: BOT ").append(conectividade.territorioBot())
+                .append(", jogador ").append(conectividade.territorioJogador()).append("\n");
+        // separados, o território de cada direção é a própria área
+        int[] porDirecao = conectividade.territorioPorDirecao() != null
+                ? conectividade.territorioPorDirecao() : conectividade.areaPorDirecao();
+        for (int d = 0; d < VALID_DIRECTIONS.size(); d++) {
+            if (conectividade.areaPorDirecao()[d] == 0) continue; // parede ou rastro
+            sb.append("- indo para ").append(VALID_DIRECTIONS.get(d)).append(": BOT fica com ")
+                    .append(porDirecao[d]).append("\n");
         }
-
-        return survived;
+        return sb.toString();
     }
 
-    private int floodFillArea(int startX, int startY, boolean[][] ocupado) {
-        int n = ocupado.length;
-        boolean[][] visitado = new boolean[n][n];
-        Deque<int[]> fila = new ArrayDeque<>();
-        fila.add(new int[]{startX, startY});
-        visitado[startY][startX] = true;
-        int cont = 0;
-
-        int[][] dirs = {{1,0},{-1,0},{0,1},{0,-1}};
-
-        while (!fila.isEmpty()) {
-            int[] atual = fila.poll();
-            int x = atual[0];
-            int y = atual[1];
-            cont++;
-
-            for (int[] d : dirs) {
-                int nx = x + d[0];
-                int ny = y + d[1];
-                if (nx < 0 || nx >= n || ny < 0 || ny >= n) continue;
-                if (visitado[ny][nx]) continue;
-                if (ocupado[ny][nx]) continue;
-
-                visitado[ny][nx] = true;
-                fila.add(new int[]{nx, ny});
-            }
+    private String montarResumoHistorico(Map<String, Double> scoreAprendizado) {
+        Map<String, Long> porAcaoWin = new HashMap<>();
+        Map<String, Long> porAcaoLoss = new HashMap<>();
+        for (String dir : VALID_DIRECTIONS) {
+            long[] c = aprendizadoService.contagemDirecao(dir);
+            porAcaoWin.put(dir, c[0]);
+            porAcaoLoss.put(dir, c[1]);
         }
-
-        return cont;
-    }
-
-    private String montarResumoHistorico(List<Jogada> jogadas, Map<String, Double> scoreAprendizado) {
-        long total = jogadas.size();
-        long wins = jogadas.stream().filter(j -> "WIN".equalsIgnoreCase(j.getResultado())).count();
-        long losses = jogadas.stream().filter(j -> "LOSE".equalsIgnoreCase(j.getResultado())).count();
-
-        Map<String, Long> porAcaoWin = jogadas.stream()
-                .filter(j -> "WIN".equalsIgnoreCase(j.getResultado()))
-                .collect(Collectors.groupingBy(Jogada::getAcao, Collectors.counting()));
-
-        Map<String, Long> porAcaoLoss = jogadas.stream()
-                .filter(j -> "LOSE".equalsIgnoreCase(j.getResultado()))
-                .collect(Collectors.groupingBy(Jogada::getAcao, Collectors.counting()));
+        long wins = porAcaoWin.values().stream().mapToLong(Long::longValue).sum();
+        long losses = porAcaoLoss.values().stream().mapToLong(Long::longValue).sum();
+        long total = wins + losses;
 
         StringBuilder sb = new StringBuilder();
         sb.append("Total de jogadas consideradas: ").append(total).append("\n");
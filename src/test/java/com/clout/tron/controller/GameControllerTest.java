@@ -0,0 +1,125 @@
+package com.clout.tron.controller;
+
+import com.clout.tron.entity.Jogada;
+import com.clout.tron.repository.JogadaRepository;
+import com.clout.tron.repository.PartidaRepository;
+import com.clout.tron.service.AprendizadoService;
+import com.clout.tron.service.CoalescenciaDecisaoService;
+import com.clout.tron.service.ConectividadePartidaService;
+import com.clout.tron.service.JogadaService;
+import com.clout.tron.service.PartidaService;
+import com.clout.tron.service.SementeAprendizado;
+import com.clout.tron.service.TransporteAprendizado;
+import com.clout.tron.service.TronAiService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class GameControllerTest {
+
+    private static final String ESTADO = "{\"boardSize\":30,\"playerX\":8,\"playerY\":15,"
+            + "\"botX\":21,\"botY\":15,\"turno\":2,\"botDirection\":\"LEFT\",\"occupied\":[]}";
+
+    private final List<Jogada> jogadas = new ArrayList<>();
+    private AprendizadoService aprendizadoService;
+    private JogadaRepository jogadaRepository;
+    private TronAiService tronAiService;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        jogadaRepository = mock(JogadaRepository.class);
+        tronAiService = mock(TronAiService.class);
+
+        // histórico já semeado por outro nó, com corte antes das jogadas da partida
+        TransporteAprendizado transporte = mock(TransporteAprendizado.class);
+        when(transporte.receber(any(), any())).thenReturn(
+                List.of(new TransporteAprendizado.Delta("historico", "corte", 0, 0, 1)));
+        aprendizadoService = new AprendizadoService(transporte, mock(SementeAprendizado.class), objectMapper);
+        ReflectionTestUtils.setField(aprendizadoService, "noConfigurado", "teste");
+        ReflectionTestUtils.invokeMethod(aprendizadoService, "iniciar");
+
+        jogadas.add(jogada(1L, "LEFT"));
+        jogadas.add(jogada(2L, "LEFT"));
+        jogadas.add(jogada(3L, "UP"));
+
+        // o repositório "em memória": o update condicional só fecha o que ainda está em MID
+        when(jogadaRepository.findByPartidaId(anyLong())).thenAnswer(inv -> List.copyOf(jogadas));
+        when(jogadaRepository.marcarResultadoPendentes(anyLong(), anyString())).thenAnswer(inv -> {
+            int marcadas = 0;
+            for (Jogada j : jogadas) {
+                if (j.getResultado() == null || "MID".equals(j.getResultado())) {
+                    j.setResultado(inv.getArgument(1));
+                    marcadas++;
+                }
+            }
+            return marcadas;
+        });
+
+        JogadaService jogadaService = new JogadaService(jogadaRepository, mock(PartidaRepository.class),
+                objectMapper, aprendizadoService);
+        GameController controller = new GameController(tronAiService, mock(PartidaService.class),
+                jogadaService, new CoalescenciaDecisaoService(), mock(ConectividadePartidaService.class));
+        mvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void fimDePartidaRepetidoContaUmaVez() throws Exception {
+        String corpo = "{\"partidaId\":1,\"vencedor\":\"BOT\",\"turnos\":40}";
+
+        mvc.perform(post("/api/partidas/fim").contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isOk());
+        assertThat(aprendizadoService.contagemDirecao("LEFT")).containsExactly(2, 0);
+        assertThat(aprendizadoService.contagemDirecao("UP")).containsExactly(1, 0);
+
+        // reenvio (retry do cliente ou clique duplo)
+        mvc.perform(post("/api/partidas/fim").contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isOk());
+        assertThat(aprendizadoService.contagemDirecao("LEFT")).containsExactly(2, 0);
+        assertThat(aprendizadoService.contagemDirecao("UP")).containsExactly(1, 0);
+        assertThat(jogadas).allMatch(j -> "WIN".equals(j.getResultado()));
+    }
+
+    @Test
+    void pedidoDepoisDoFimNaoDecideNemRegistra() throws Exception {
+        mvc.perform(post("/api/partidas/fim").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"partidaId\":1,\"vencedor\":\"BOT\",\"turnos\":40}"))
+                .andExpect(status().isOk());
+
+        // pedido atrasado (resposta assíncrona do último tick chegando depois do fim)
+        mvc.perform(post("/api/ia/movimento").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"partidaId\":1,\"estado\":" + ESTADO + "}"))
+                .andExpect(status().isNoContent());
+
+        verify(tronAiService, never()).decidir(any(), any(), any());
+        verify(jogadaRepository, never()).save(any());
+    }
+
+    private static Jogada jogada(Long id, String acao) {
+        Jogada j = new Jogada();
+        j.setId(id);
+        j.setAcao(acao);
+        j.setResultado("MID");
+        j.setEstadoJson(ESTADO);
+        return j;
+    }
+}
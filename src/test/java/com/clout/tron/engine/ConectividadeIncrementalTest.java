@@ -0,0 +1,189 @@
+package com.clout.tron.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConectividadeIncrementalTest {
+
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0};
+
+    private int n;
+    private boolean[] livre;
+
+    @Test
+    void atualizacaoIncrementalBateComReconstrucao() {
+        Random random = new Random(42);
+        long reconstrucoes = 0;
+        for (int partida = 0; partida < 300; partida++) {
+            n = 3 + random.nextInt(18);
+            livre = new boolean[n * n];
+            Arrays.fill(livre, true);
+            int obstaculos = (int) (n * n * random.nextDouble() * 0.3);
+            for (int i = 0; i < obstaculos; i++) livre[random.nextInt(n * n)] = false;
+
+            int bot = random.nextInt(n * n);
+            int jogador;
+            do {
+                jogador = random.nextInt(n * n);
+            } while (jogador == bot);
+            livre[bot] = false;
+            livre[jogador] = false;
+
+            ConectividadeIncremental conectividade = new ConectividadeIncremental(n, livre, bot, jogador);
+            verificar(conectividade, bot, jogador);
+
+            // cada atualização traz 1 ou 2 passos de cada moto e às vezes uma célula solta
+            int[] novas = new int[5];
+            while (true) {
+                int qtd = 0;
+                int passos = 1 + random.nextInt(2);
+                boolean bateu = false;
+                for (int p = 0; p < passos && !bateu; p++) {
+                    bot = mover(bot, random);
+                    jogador = bot < 0 ? -1 : mover(jogador, random);
+                    bateu = bot < 0 || jogador < 0;
+                    if (!bateu) {
+                        livre[bot] = false;
+                        novas[qtd++] = bot;
+                        livre[jogador] = false;
+                        novas[qtd++] = jogador;
+                    }
+                }
+                if (bateu) break;
+                int solta = random.nextInt(n * n);
+                if (random.nextInt(5) == 0 && livre[solta]) {
+                    livre[solta] = false;
+                    novas[qtd++] = solta;
+                }
+
+                conectividade.aplicar(novas, qtd, bot, jogador);
+                verificar(conectividade, bot, jogador);
+            }
+            reconstrucoes += conectividade.reconstrucoes();
+        }
+        // passou tanto pelo reparo localizado quanto pela reconstrução por orçamento estourado
+        assertThat(reconstrucoes).isPositive();
+    }
+
+    private void verificar(ConectividadeIncremental incremental, int bot, int jogador) {
+        ConectividadeIncremental nova = new ConectividadeIncremental(n, livre, bot, jogador);
+        int[] componente = new int[n * n];
+        int[] tamanho = rotularPorBusca(componente);
+        int[] distBot = distancias(bot);
+        int[] distJogador = distancias(jogador);
+
+        assertThat(incremental.ocupadas()).isEqualTo(nova.ocupadas());
+        assertThat(incremental.cabecasConectadas())
+                .isEqualTo(nova.cabecasConectadas())
+                .isEqualTo(alcanca(componente, bot, jogador));
+        for (int c = 0; c < n * n; c++) {
+            assertThat(incremental.livre(c)).isEqualTo(livre[c]);
+            int esperado = livre[c] ? tamanho[componente[c]] : 0;
+            assertThat(incremental.tamanhoRegiao(c)).as("região da célula %d", c).isEqualTo(esperado);
+            assertThat(nova.tamanhoRegiao(c)).isEqualTo(esperado);
+            if (!livre[c]) continue;
+            assertThat(incremental.distanciaBot(c)).as("distância do bot em %d", c).isEqualTo(distBot[c]);
+            assertThat(incremental.distanciaJogador(c)).as("distância do jogador em %d", c).isEqualTo(distJogador[c]);
+        }
+
+        int territorioBot = 0, territorioJogador = 0;
+        for (int c = 0; c < n * n; c++) {
+            if (!livre[c]) continue;
+            if (distBot[c] < distJogador[c]) territorioBot++;
+            else if (distJogador[c] < distBot[c]) territorioJogador++;
+        }
+        assertThat(incremental.territorioBot()).isEqualTo(territorioBot).isEqualTo(nova.territorioBot());
+        assertThat(incremental.territorioJogador()).isEqualTo(territorioJogador).isEqualTo(nova.territorioJogador());
+
+        // território por direção: células (fora a de partida) mais perto da vizinha do que do jogador
+        for (int d = 0; d < 4; d++) {
+            int v = vizinha(bot, d);
+            if (v < 0 || !livre[v]) continue;
+            int[] distVizinha = distancias(v);
+            int esperado = 0;
+            for (int c = 0; c < n * n; c++) {
+                if (c != v && livre[c] && distVizinha[c] < distJogador[c]) esperado++;
+            }
+            assertThat(incremental.territorioAPartirDe(v)).as("território pela célula %d", v).isEqualTo(esperado);
+        }
+    }
+
+    private int[] distancias(int origem) {
+        int[] dist = new int[n * n];
+        Arrays.fill(dist, ConectividadeIncremental.INFINITO);
+        int[] fila = new int[n * n];
+        int ini = 0, fim = 0;
+        dist[origem] = 0;
+        fila[fim++] = origem;
+        while (ini < fim) {
+            int atual = fila[ini++];
+            for (int d = 0; d < 4; d++) {
+                int v = vizinha(atual, d);
+                if (v < 0 || !livre[v] || dist[v] != ConectividadeIncremental.INFINITO) continue;
+                dist[v] = dist[atual] + 1;
+                fila[fim++] = v;
+            }
+        }
+        return dist;
+    }
+
+    private int mover(int celula, Random random) {
+        int[] opcoes = new int[4];
+        int qtd = 0;
+        for (int d = 0; d < 4; d++) {
+            int vizinha = vizinha(celula, d);
+            if (vizinha >= 0 && livre[vizinha]) opcoes[qtd++] = vizinha;
+        }
+        return qtd == 0 ? -1 : opcoes[random.nextInt(qtd)];
+    }
+
+    // flood fill do zero: componente[c] recebe o rótulo (>= 1) e o retorno, o tamanho por rótulo
+    private int[] rotularPorBusca(int[] componente) {
+        int[] tamanho = new int[n * n + 1];
+        int[] fila = new int[n * n];
+        int rotulo = 0;
+        for (int inicio = 0; inicio < n * n; inicio++) {
+            if (!livre[inicio] || componente[inicio] != 0) continue;
+            rotulo++;
+            int ini = 0, fim = 0;
+            componente[inicio] = rotulo;
+            fila[fim++] = inicio;
+            while (ini < fim) {
+                int atual = fila[ini++];
+                for (int d = 0; d < 4; d++) {
+                    int v = vizinha(atual, d);
+                    if (v < 0 || !livre[v] || componente[v] != 0) continue;
+                    componente[v] = rotulo;
+                    fila[fim++] = v;
+                }
+            }
+            tamanho[rotulo] = fim;
+        }
+        return tamanho;
+    }
+
+    // a cabeça do jogador é alcançável se for vizinha do bot ou de uma célula livre da região dele
+    private boolean alcanca(int[] componente, int bot, int jogador) {
+        for (int d = 0; d < 4; d++) {
+            int v = vizinha(jogador, d);
+            if (v < 0) continue;
+            if (v == bot) return true;
+            if (!livre[v]) continue;
+            for (int e = 0; e < 4; e++) {
+                int w = vizinha(bot, e);
+                if (w >= 0 && livre[w] && componente[w] == componente[v]) return true;
+            }
+        }
+        return false;
+    }
+
+    private int vizinha(int celula, int dir) {
+        int x = celula % n + DX[dir], y = celula / n + DY[dir];
+        return x < 0 || y < 0 || x >= n || y >= n ? -1 : y * n + x;
+    }
+}
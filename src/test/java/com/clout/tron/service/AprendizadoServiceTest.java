@@ -0,0 +1,137 @@
+package com.clout.tron.service;
+
+import com.clout.tron.entity.AgregadoDirecao;
+import com.clout.tron.entity.Jogada;
+import com.clout.tron.repository.AgregadoDirecaoRepository;
+import com.clout.tron.repository.ContadorAprendizadoRepository;
+import com.clout.tron.repository.JogadaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AprendizadoServiceTest {
+
+    private static final String ESTADO = "{\"boardSize\":30,\"playerX\":8,\"playerY\":15,"
+            + "\"botX\":21,\"botY\":15,\"turno\":2,\"botDirection\":\"LEFT\",\"occupied\":[]}";
+
+    // aprendizado_contador compartilhado: nó -> chave -> [vitórias, derrotas, versão]
+    private final Map<String, Map<String, long[]>> tabela = new HashMap<>();
+
+    @Test
+    void doisNosSomamHistoricoEPartidasUmaVezSo() {
+        // banco antes dos contadores: jogadas 1..5 (a 5 ainda em aberto) e um lote já arquivado
+        JogadaRepository jogadaRepository = mock(JogadaRepository.class);
+        when(jogadaRepository.maiorId()).thenReturn(5L);
+        when(jogadaRepository.contarPorAcaoEResultado(anyLong())).thenReturn(List.of(
+                new Object[]{"LEFT", "WIN", 2L},
+                new Object[]{"UP", "LOSE", 1L}));
+        AgregadoDirecaoRepository agregadoDirecaoRepository = mock(AgregadoDirecaoRepository.class);
+        AgregadoDirecao arquivado = new AgregadoDirecao();
+        arquivado.setAcao("LEFT");
+        arquivado.setVitorias(10);
+        arquivado.setDerrotas(5);
+        when(agregadoDirecaoRepository.findAll()).thenReturn(List.of(arquivado));
+
+        ContadorAprendizadoRepository contadorRepository = mock(ContadorAprendizadoRepository.class);
+        AtomicBoolean reservado = new AtomicBoolean();
+        when(contadorRepository.reservar(anyString(), anyString()))
+                .thenAnswer(inv -> reservado.getAndSet(true) ? 0 : 1);
+
+        TransporteMemoria transporteA = new TransporteMemoria();
+        TransporteMemoria transporteB = new TransporteMemoria();
+        transporteB.fora = true; // banco inacessível quando o nó B sobe
+
+        AprendizadoService a = no("a", transporteA,
+                new SementeAprendizado(contadorRepository, jogadaRepository, agregadoDirecaoRepository, transporteA));
+        AprendizadoService b = no("b", transporteB,
+                new SementeAprendizado(contadorRepository, jogadaRepository, agregadoDirecaoRepository, transporteB));
+
+        // partida fechada em B antes da restauração: fica pendente
+        b.registrarResultadoPartida(List.of(jogada(6L, "LEFT"), jogada(7L, "UP")), "WIN");
+        // a jogada 5 estava em aberto no corte: não entra nem na semente nem ao vivo
+        a.registrarResultadoPartida(List.of(jogada(5L, "LEFT"), jogada(8L, "DOWN")), "LOSE");
+
+        b.sincronizar();
+        assertThat(tabela).doesNotContainKey("b");
+
+        transporteB.fora = false;
+        b.sincronizar();
+        a.sincronizar();
+        b.sincronizar();
+
+        for (AprendizadoService no : List.of(a, b)) {
+            assertThat(no.contagemDirecao("LEFT")).containsExactly(13, 5);
+            assertThat(no.contagemDirecao("UP")).containsExactly(1, 1);
+            assertThat(no.contagemDirecao("DOWN")).containsExactly(0, 1);
+            assertThat(no.contagemDirecao("RIGHT")).containsExactly(0, 0);
+        }
+        // só o primeiro nó semeou; B leu a semente gravada
+        verify(jogadaRepository, times(1)).contarPorAcaoEResultado(5L);
+    }
+
+    private AprendizadoService no(String id, TransporteAprendizado transporte, SementeAprendizado semente) {
+        AprendizadoService service = new AprendizadoService(transporte, semente, new ObjectMapper());
+        ReflectionTestUtils.setField(service, "noConfigurado", id);
+        ReflectionTestUtils.setField(service, "minAmostrasPadrao", 20);
+        ReflectionTestUtils.invokeMethod(service, "iniciar");
+        return service;
+    }
+
+    private static Jogada jogada(Long id, String acao) {
+        Jogada j = new Jogada();
+        j.setId(id);
+        j.setAcao(acao);
+        j.setEstadoJson(ESTADO);
+        return j;
+    }
+
+    // a tabela vista por um nó, com merge por máximo como em TransporteAprendizadoTabela
+    private class TransporteMemoria implements TransporteAprendizado {
+
+        boolean fora;
+
+        @Override
+        public void publicar(String no, Map<String, long[]> contadores, long versao) {
+            verificar();
+            Map<String, long[]> linhas = tabela.computeIfAbsent(no, k -> new HashMap<>());
+            contadores.forEach((chave, c) -> {
+                long[] linha = linhas.computeIfAbsent(chave, k -> new long[3]);
+                linha[0] = Math.max(linha[0], c[0]);
+                linha[1] = Math.max(linha[1], c[1]);
+                linha[2] = Math.max(linha[2], versao);
+            });
+        }
+
+        @Override
+        public List<Delta> receber(String noIgnorado, Map<String, Long> versoesConhecidas) {
+            verificar();
+            List<Delta> deltas = new ArrayList<>();
+            tabela.forEach((no, linhas) -> {
+                if (no.equals(noIgnorado)) return;
+                long conhecida = versoesConhecidas.getOrDefault(no, 0L);
+                linhas.forEach((chave, l) -> {
+                    if (l[2] > conhecida) deltas.add(new Delta(no, chave, l[0], l[1], l[2]));
+                });
+            });
+            return deltas;
+        }
+
+        private void verificar() {
+            if (fora) throw new IllegalStateException("banco fora");
+        }
+    }
+}